@@ -0,0 +1,39 @@
+package com.brdify.benchmark;
+
+import com.brdify.service.ChunkingService;
+import com.brdify.service.TokenEstimator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChunkingService#splitIntoChunks} on cleaned meeting transcripts at
+ * the default extraction budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ChunkingBenchmark {
+
+    @Param({ "1", "10" })
+    public int sizeMb;
+
+    @Param({ "4000" })
+    public int tokenBudget;
+
+    private final ChunkingService chunkingService = new ChunkingService(new TokenEstimator());
+    private String input;
+
+    @Setup
+    public void setUp() {
+        input = SampleData.transcript(sizeMb * 1024 * 1024);
+    }
+
+    @Benchmark
+    public ChunkingService.ChunkPlan splitIntoChunks() {
+        return chunkingService.splitIntoChunks(input, tokenBudget);
+    }
+}
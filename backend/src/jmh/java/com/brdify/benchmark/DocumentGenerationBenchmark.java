@@ -0,0 +1,40 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.service.DocumentGenerationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF and DOCX export of BRDs from 10 to 5,000 requirements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class DocumentGenerationBenchmark {
+
+    @Param({ "10", "100", "1000", "5000" })
+    public int requirements;
+
+    private final DocumentGenerationService documentGenerationService = new DocumentGenerationService();
+    private BrdDocument brd;
+
+    @Setup
+    public void setUp() {
+        brd = SampleData.brd(requirements);
+    }
+
+    @Benchmark
+    public byte[] generatePdf() {
+        return documentGenerationService.generatePdf(brd);
+    }
+
+    @Benchmark
+    public byte[] generateDocx() {
+        return documentGenerationService.generateDocx(brd);
+    }
+}
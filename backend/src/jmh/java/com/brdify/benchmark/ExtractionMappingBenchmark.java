@@ -0,0 +1,63 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.service.ExtractionMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON-to-entity mapping of a whole upload's extraction responses, as
+ * {@code BrdService} does as each chunk comes back from Groq, against the
+ * JsonNode-tree mapping it replaced. The responses are canned, so no
+ * network or database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionMappingBenchmark {
+
+    @Param({ "10", "100" })
+    public int chunks;
+
+    @Param({ "20" })
+    public int requirementsPerChunk;
+
+    private final ExtractionMapper extractionMapper = new ExtractionMapper(new ObjectMapper());
+    private final LegacyExtractionMapper legacyExtractionMapper = new LegacyExtractionMapper(new ObjectMapper());
+    private final List<String> responses = new ArrayList<>();
+    private final List<String> chunkTexts = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < chunks; i++) {
+            responses.add(SampleData.extractionResponse(i, requirementsPerChunk));
+            chunkTexts.add(SampleData.transcript(16 * 1024));
+        }
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        BrdDocument brd = new BrdDocument();
+        for (int i = 0; i < chunks; i++) {
+            blackhole.consume(extractionMapper.map(responses.get(i), chunkTexts.get(i), brd));
+        }
+    }
+
+    @Benchmark
+    public void legacyTree(Blackhole blackhole) throws JsonProcessingException {
+        BrdDocument brd = new BrdDocument();
+        for (int i = 0; i < chunks; i++) {
+            blackhole.consume(legacyExtractionMapper.map(responses.get(i), chunkTexts.get(i), brd));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JsonNode-tree extraction mapping that {@code ExtractionMapper}
+ * replaced, kept as the baseline for {@link ExtractionMappingBenchmark}.
+ */
+@RequiredArgsConstructor
+public class LegacyExtractionMapper {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Entities extracted from one chunk. The {@code requirementTo*} maps hold
+     * the index into this chunk's decisions, risks or timelines that the
+     * model linked each requirement to.
+     */
+    public record ChunkExtraction(String chunk,
+            List<Requirement> requirements,
+            List<Decision> decisions,
+            List<Stakeholder> stakeholders,
+            List<Risk> risks,
+            List<Timeline> timelines,
+            Map<Requirement, String> requirementQuotes,
+            Map<Requirement, Integer> requirementToDecision,
+            Map<Requirement, Integer> requirementToRisk,
+            Map<Requirement, Integer> requirementToTimeline) {
+    }
+
+    public ChunkExtraction map(String extractionJson, String chunk, BrdDocument brdDocument)
+            throws JsonProcessingException {
+        // Extract only the JSON object, ignoring conversational text before/after
+        String sanitizeJson = extractionJson;
+        int startIdx = sanitizeJson.indexOf('{');
+        int endIdx = sanitizeJson.lastIndexOf('}');
+        if (startIdx != -1 && endIdx != -1 && endIdx >= startIdx) {
+            sanitizeJson = sanitizeJson.substring(startIdx, endIdx + 1);
+        }
+
+        JsonNode root = objectMapper.readTree(sanitizeJson);
+
+        ChunkExtraction extraction = new ChunkExtraction(chunk, new ArrayList<>(), new ArrayList<>(),
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new IdentityHashMap<>(),
+                new IdentityHashMap<>(), new IdentityHashMap<>(), new IdentityHashMap<>());
+
+        // Requirements
+        if (root.has("requirements")) {
+            root.get("requirements").forEach(node -> {
+                Requirement req = new Requirement();
+                String quote = chunk; // Default to whole chunk if quote missing
+                if (node.isObject()) {
+                    req.setDescription(node.has("description") ? node.get("description").asText() : "");
+                    if (node.has("sourceQuote")) {
+                        quote = node.get("sourceQuote").asText();
+                    }
+                    if (node.has("relatedDecisionIndex") && !node.get("relatedDecisionIndex").isNull()) {
+                        extraction.requirementToDecision().put(req, node.get("relatedDecisionIndex").asInt());
+                    }
+                    if (node.has("relatedRiskIndex") && !node.get("relatedRiskIndex").isNull()) {
+                        extraction.requirementToRisk().put(req, node.get("relatedRiskIndex").asInt());
+                    }
+                    if (node.has("relatedTimelineIndex") && !node.get("relatedTimelineIndex").isNull()) {
+                        extraction.requirementToTimeline().put(req, node.get("relatedTimelineIndex").asInt());
+                    }
+                } else {
+                    req.setDescription(node.asText());
+                }
+                req.setSourceQuote(quote);
+                req.setType("FUNCTIONAL");
+                req.setPriority("MEDIUM");
+                req.setBrdDocument(brdDocument);
+                extraction.requirements().add(req);
+                extraction.requirementQuotes().put(req, quote);
+            });
+        }
+
+        // Decisions
+        if (root.has("decisions")) {
+            root.get("decisions").forEach(node -> {
+                Decision dec = new Decision();
+                if (node.isObject() && node.has("description")) {
+                    dec.setDescription(node.get("description").asText());
+                } else {
+                    dec.setDescription(node.asText());
+                }
+                dec.setStatus("PENDING");
+                dec.setBrdDocument(brdDocument);
+                extraction.decisions().add(dec);
+            });
+        }
+
+        // Stakeholders
+        if (root.has("stakeholders")) {
+            root.get("stakeholders").forEach(node -> {
+                Stakeholder sh = new Stakeholder();
+                String raw = node.asText();
+                String[] parts = raw.split(":");
+                sh.setName(parts[0].trim());
+                if (parts.length > 1) {
+                    sh.setRole(parts[1].trim());
+                }
+                sh.setBrdDocument(brdDocument);
+                extraction.stakeholders().add(sh);
+            });
+        }
+
+        // Risks
+        if (root.has("risks")) {
+            root.get("risks").forEach(node -> {
+                Risk risk = new Risk();
+                if (node.isObject()) {
+                    risk.setDescription(node.has("description") ? node.get("description").asText() : "");
+                    risk.setProbability(node.has("probability") ? node.get("probability").asText() : "MEDIUM");
+                    risk.setImpact(node.has("impact") ? node.get("impact").asText() : "MEDIUM");
+                    risk.setMitigation(node.has("mitigation") ? node.get("mitigation").asText() : "");
+                } else {
+                    // Fallback if LLM returns string
+                    risk.setDescription(node.asText());
+                }
+                risk.setBrdDocument(brdDocument);
+                extraction.risks().add(risk);
+            });
+        }
+
+        // Timeline
+        if (root.has("timeline")) {
+            root.get("timeline").forEach(node -> {
+                Timeline timeline = new Timeline();
+                if (node.isObject()) {
+                    timeline.setMilestone(node.has("milestone") ? node.get("milestone").asText() : "");
+                    timeline.setExpectedDate(node.has("expectedDate") ? node.get("expectedDate").asText() : "");
+                    timeline.setDescription(node.has("description") ? node.get("description").asText() : "");
+                } else {
+                    timeline.setMilestone(node.asText());
+                }
+                timeline.setBrdDocument(brdDocument);
+                extraction.timelines().add(timeline);
+            });
+        }
+
+        return extraction;
+    }
+}
@@ -0,0 +1,29 @@
+package com.brdify.benchmark;
+
+import java.util.regex.Pattern;
+
+/**
+ * The multi-pass, regex-based cleanText that PreprocessingService used
+ * before the single-pass scanner. Kept only as a benchmark baseline.
+ */
+public final class LegacyPreprocessing {
+
+    private static final Pattern EMAIL_HEADER_PATTERN = Pattern.compile("^(From:|To:|Sent:|Subject:).*",
+            Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISCLAIMER_PATTERN = Pattern.compile("Disclaimer:.*|Confidentiality Notice:.*",
+            Pattern.CASE_INSENSITIVE);
+
+    private LegacyPreprocessing() {
+    }
+
+    public static String cleanText(String input) {
+        if (input == null || input.isEmpty()) {
+            return "";
+        }
+        String cleaned = input.replace("\r\n", "\n").replace("\r", "\n");
+        cleaned = cleaned.replaceAll("\n{3,}", "\n\n");
+        cleaned = EMAIL_HEADER_PATTERN.matcher(cleaned).replaceAll("");
+        cleaned = DISCLAIMER_PATTERN.matcher(cleaned).replaceAll("");
+        return cleaned.trim();
+    }
+}
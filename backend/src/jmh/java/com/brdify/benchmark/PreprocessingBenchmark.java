@@ -0,0 +1,44 @@
+package com.brdify.benchmark;
+
+import com.brdify.service.PreprocessingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-pass {@link PreprocessingService#cleanText} against the original
+ * five-pass regex implementation. Run with {@code -prof gc} (the profile
+ * default) to compare gc.alloc.rate.norm, i.e. bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class PreprocessingBenchmark {
+
+    @Param({ "1", "50" })
+    public int sizeMb;
+
+    private final PreprocessingService preprocessingService = new PreprocessingService();
+    private String input;
+
+    @Setup
+    public void setUp() {
+        input = SampleData.emailThread(sizeMb * 1024 * 1024);
+        if (!LegacyPreprocessing.cleanText(input).equals(preprocessingService.cleanText(input))) {
+            throw new IllegalStateException("Single-pass cleanText diverges from the regex implementation");
+        }
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return preprocessingService.cleanText(input);
+    }
+
+    @Benchmark
+    public String legacyRegex() {
+        return LegacyPreprocessing.cleanText(input);
+    }
+}
@@ -0,0 +1,116 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.*;
+import com.brdify.service.ExtractionMapper;
+import com.brdify.service.RtmService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTM construction after the BRD is saved: position-based linking in
+ * {@link RtmService#buildEntries} against the {@code indexOf} lookups it
+ * replaced, for BRDs of 100 to 5,000 requirements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RtmLinkingBenchmark {
+
+    private static final int REQUIREMENTS_PER_CHUNK = 20;
+
+    @Param({ "100", "500", "2000", "5000" })
+    public int requirements;
+
+    private final RtmService rtmService = new RtmService(null, null);
+    private final List<ExtractionMapper.ChunkExtraction> extractions = new ArrayList<>();
+    private final SourceData sourceData = new SourceData();
+    private BrdDocument savedDoc;
+
+    @Setup
+    public void setUp() throws IOException {
+        ExtractionMapper mapper = new ExtractionMapper(new ObjectMapper());
+        savedDoc = new BrdDocument();
+        savedDoc.setRequirements(new ArrayList<>());
+        savedDoc.setDecisions(new ArrayList<>());
+        savedDoc.setRisks(new ArrayList<>());
+        savedDoc.setTimelines(new ArrayList<>());
+        for (int i = 0; i < requirements / REQUIREMENTS_PER_CHUNK; i++) {
+            ExtractionMapper.ChunkExtraction extraction = mapper.map(
+                    SampleData.extractionResponse(i, REQUIREMENTS_PER_CHUNK), "chunk " + i, savedDoc);
+            extractions.add(extraction);
+            savedDoc.getRequirements().addAll(extraction.requirements());
+            savedDoc.getDecisions().addAll(extraction.decisions());
+            savedDoc.getRisks().addAll(extraction.risks());
+            savedDoc.getTimelines().addAll(extraction.timelines());
+        }
+
+        // As after save: every entity has its generated id
+        long id = 1;
+        for (Requirement req : savedDoc.getRequirements()) {
+            req.setId(id++);
+        }
+        for (Decision dec : savedDoc.getDecisions()) {
+            dec.setId(id++);
+        }
+        for (Risk risk : savedDoc.getRisks()) {
+            risk.setId(id++);
+        }
+        for (Timeline timeline : savedDoc.getTimelines()) {
+            timeline.setId(id++);
+        }
+
+        if (!positional().equals(legacyIndexOf())) {
+            throw new IllegalStateException("Positional RTM linking diverges from indexOf linking");
+        }
+    }
+
+    @Benchmark
+    public List<RtmEntry> positional() {
+        return rtmService.buildEntries(savedDoc, sourceData, extractions);
+    }
+
+    @Benchmark
+    public List<RtmEntry> legacyIndexOf() {
+        List<RtmEntry> rtmEntries = new ArrayList<>();
+        int chunkReqIndexStart = 0;
+        for (ExtractionMapper.ChunkExtraction extraction : extractions) {
+            for (int i = 0; i < extraction.requirements().size(); i++) {
+                RtmEntry rtm = new RtmEntry();
+                rtm.setBrdDocument(savedDoc);
+                rtm.setRequirement(savedDoc.getRequirements().get(chunkReqIndexStart + i));
+                rtm.setSourceData(sourceData);
+                rtm.setSourceChunk(extraction.requirements().get(i).getSourceQuote());
+
+                int relDecIdx = extraction.decisionLinks()[i];
+                if (relDecIdx >= 0 && relDecIdx < extraction.decisions().size()) {
+                    int globalDecIdx = savedDoc.getDecisions().indexOf(extraction.decisions().get(relDecIdx));
+                    if (globalDecIdx != -1)
+                        rtm.setDecision(savedDoc.getDecisions().get(globalDecIdx));
+                }
+                int relRiskIdx = extraction.riskLinks()[i];
+                if (relRiskIdx >= 0 && relRiskIdx < extraction.risks().size()) {
+                    int globalRiskIdx = savedDoc.getRisks().indexOf(extraction.risks().get(relRiskIdx));
+                    if (globalRiskIdx != -1)
+                        rtm.setRisk(savedDoc.getRisks().get(globalRiskIdx));
+                }
+                int relTimeIdx = extraction.timelineLinks()[i];
+                if (relTimeIdx >= 0 && relTimeIdx < extraction.timelines().size()) {
+                    int globalTimeIdx = savedDoc.getTimelines().indexOf(extraction.timelines().get(relTimeIdx));
+                    if (globalTimeIdx != -1)
+                        rtm.setTimeline(savedDoc.getTimelines().get(globalTimeIdx));
+                }
+                rtmEntries.add(rtm);
+            }
+            chunkReqIndexStart += extraction.requirements().size();
+        }
+        return rtmEntries;
+    }
+}
@@ -0,0 +1,195 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic inputs shaped like real uploads.
+ */
+public final class SampleData {
+
+    private static final String[] SPEAKERS = { "Priya (PM)", "Tom (Eng Lead)", "Ana (Finance)", "Raj (Ops)" };
+    private static final String[] SENTENCES = {
+            "We need the portal to export invoices as PDF before the audit.",
+            "The system shall lock an account after five failed login attempts.",
+            "Let's agree to ship the reporting module in the Q3 release.",
+            "There is a risk the vendor API will not support bulk updates.",
+            "Response times must stay under two seconds at peak load.",
+            "Finance wants a monthly reconciliation report emailed automatically.",
+            "Can we integrate with the existing SSO provider instead of building our own?",
+            "Milestone: UAT sign-off expected by 15 October 2024.",
+    };
+
+    private SampleData() {
+    }
+
+    /**
+     * An email/meeting-notes mix of roughly {@code targetChars} characters with
+     * CRLF line endings, header blocks, disclaimers and runs of blank lines.
+     */
+    public static String emailThread(int targetChars) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder(targetChars + 1024);
+        int message = 0;
+        while (sb.length() < targetChars) {
+            sb.append("From: ").append(SPEAKERS[random.nextInt(SPEAKERS.length)]).append("\r\n");
+            sb.append("To: project-team@example.com\r\n");
+            sb.append("Sent: Monday, 3 June 2024 10:").append(10 + message % 50).append("\r\n");
+            sb.append("Subject: RE: Requirements sync #").append(message).append("\r\n\r\n");
+
+            int paragraphs = 2 + random.nextInt(4);
+            for (int p = 0; p < paragraphs; p++) {
+                int sentences = 2 + random.nextInt(5);
+                for (int s = 0; s < sentences; s++) {
+                    sb.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+                }
+                sb.append("\r\n");
+                sb.append(random.nextInt(4) == 0 ? "\r\n\r\n\r\n" : "\r\n");
+            }
+            sb.append("Confidentiality Notice: This email may contain privileged information.\r\n\r\n\r\n");
+            message++;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Meeting transcript of roughly {@code targetChars} characters, one speaker turn per line.
+     */
+    public static String transcript(int targetChars) {
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder(targetChars + 256);
+        while (sb.length() < targetChars) {
+            sb.append(SPEAKERS[random.nextInt(SPEAKERS.length)]).append(": ");
+            int sentences = 1 + random.nextInt(4);
+            for (int s = 0; s < sentences; s++) {
+                sb.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            sb.append('\n');
+            if (random.nextInt(6) == 0) {
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A canned extraction response in the shape the extraction prompt asks
+     * for, wrapped in the kind of chatter the model sometimes adds.
+     */
+    public static String extractionResponse(int seed, int requirements) {
+        Random random = new Random(seed);
+        int decisions = Math.max(1, requirements / 4);
+        int risks = Math.max(1, requirements / 5);
+        int timelines = Math.max(1, requirements / 6);
+
+        StringBuilder sb = new StringBuilder("Here is the extracted information:\n```json\n{\n  \"requirements\": [");
+        for (int i = 0; i < requirements; i++) {
+            String sentence = SENTENCES[random.nextInt(SENTENCES.length)];
+            sb.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\"description\": \"").append(sentence).append(" (R").append(i).append(")\", ")
+                    .append("\"sourceQuote\": \"").append(sentence).append("\", ")
+                    .append("\"relatedDecisionIndex\": ").append(random.nextInt(4) == 0 ? "null" : random.nextInt(decisions)).append(", ")
+                    .append("\"relatedRiskIndex\": ").append(random.nextInt(3) == 0 ? "null" : random.nextInt(risks)).append(", ")
+                    .append("\"relatedTimelineIndex\": ").append(random.nextInt(2) == 0 ? "null" : random.nextInt(timelines))
+                    .append("}");
+        }
+        sb.append("\n  ],\n  \"decisions\": [");
+        for (int i = 0; i < decisions; i++) {
+            sb.append(i == 0 ? "" : ", ").append("{\"description\": \"Decision ").append(i).append(": ")
+                    .append(SENTENCES[random.nextInt(SENTENCES.length)]).append("\"}");
+        }
+        sb.append("],\n  \"stakeholders\": [");
+        for (int i = 0; i < SPEAKERS.length; i++) {
+            String speaker = SPEAKERS[i];
+            String name = speaker.substring(0, speaker.indexOf(' '));
+            String role = speaker.substring(speaker.indexOf('(') + 1, speaker.length() - 1);
+            sb.append(i == 0 ? "" : ", ").append('"').append(name).append(": ").append(role).append('"');
+        }
+        sb.append("],\n  \"risks\": [");
+        for (int i = 0; i < risks; i++) {
+            sb.append(i == 0 ? "" : ", ").append("{\"description\": \"Risk ").append(i)
+                    .append(": vendor delays\", \"probability\": \"MEDIUM\", \"impact\": \"HIGH\", ")
+                    .append("\"mitigation\": \"Agree fallback supplier\"}");
+        }
+        sb.append("],\n  \"timeline\": [");
+        for (int i = 0; i < timelines; i++) {
+            sb.append(i == 0 ? "" : ", ").append("{\"milestone\": \"Milestone ").append(i)
+                    .append("\", \"expectedDate\": \"2024-Q").append(1 + i % 4)
+                    .append("\", \"description\": \"Delivery checkpoint\"}");
+        }
+        sb.append("]\n}\n```\nLet me know if you need anything else.");
+        return sb.toString();
+    }
+
+    /**
+     * A saved-looking BRD with the given number of requirements and
+     * proportionate decisions, risks, timelines and stakeholders.
+     */
+    public static BrdDocument brd(int requirementCount) {
+        Random random = new Random(requirementCount);
+        BrdDocument brd = new BrdDocument();
+        brd.setId((long) requirementCount);
+        brd.setTitle("BRD from EMAIL");
+        brd.setStatus("DRAFT");
+        brd.setSummary(emailThread(2_000));
+
+        List<Requirement> requirements = new ArrayList<>();
+        for (int i = 0; i < requirementCount; i++) {
+            Requirement req = new Requirement();
+            req.setId((long) i);
+            req.setDescription(SENTENCES[random.nextInt(SENTENCES.length)] + " (R" + i + ")");
+            req.setSourceQuote(SENTENCES[random.nextInt(SENTENCES.length)]);
+            req.setType("FUNCTIONAL");
+            req.setPriority("MEDIUM");
+            requirements.add(req);
+        }
+        brd.setRequirements(requirements);
+
+        List<Decision> decisions = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, requirementCount / 4); i++) {
+            Decision dec = new Decision();
+            dec.setId((long) i);
+            dec.setDescription(SENTENCES[random.nextInt(SENTENCES.length)]);
+            dec.setStatus("PENDING");
+            decisions.add(dec);
+        }
+        brd.setDecisions(decisions);
+
+        List<Stakeholder> stakeholders = new ArrayList<>();
+        for (int i = 0; i < Math.max(SPEAKERS.length, requirementCount / 20); i++) {
+            Stakeholder sh = new Stakeholder();
+            sh.setId((long) i);
+            sh.setName(SPEAKERS[i % SPEAKERS.length] + " " + i);
+            sh.setRole("Reviewer");
+            stakeholders.add(sh);
+        }
+        brd.setStakeholders(stakeholders);
+
+        List<Risk> risks = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, requirementCount / 5); i++) {
+            Risk risk = new Risk();
+            risk.setId((long) i);
+            risk.setDescription("Risk " + i + ": " + SENTENCES[random.nextInt(SENTENCES.length)]);
+            risk.setProbability("MEDIUM");
+            risk.setImpact("HIGH");
+            risk.setMitigation("Agree fallback supplier");
+            risks.add(risk);
+        }
+        brd.setRisks(risks);
+
+        List<Timeline> timelines = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, requirementCount / 6); i++) {
+            Timeline timeline = new Timeline();
+            timeline.setId((long) i);
+            timeline.setMilestone("Milestone " + i);
+            timeline.setExpectedDate("2024-Q" + (1 + i % 4));
+            timeline.setDescription("Delivery checkpoint");
+            timelines.add(timeline);
+        }
+        brd.setTimelines(timelines);
+        return brd;
+    }
+}
@@ -0,0 +1,78 @@
+package com.brdify.benchmark;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.domain.Requirement;
+import com.brdify.dto.SearchPage;
+import com.brdify.service.SearchIndexService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Query latency of {@link SearchIndexService} over corpora of up to a
+ * million requirements, indexed in BRDs of 1,000 through the same path a
+ * save takes. {@code broad} matches about an eighth of all items, so it
+ * measures ranking many hits; {@code selective} matches a handful.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int REQUIREMENTS_PER_BRD = 1_000;
+
+    @Param({ "100000", "1000000" })
+    public int requirements;
+
+    private Path indexDir;
+    private SearchIndexService searchIndexService;
+
+    @Setup
+    public void setUp() throws IOException {
+        indexDir = Files.createTempDirectory("brdify-search-bench");
+        // No transaction is active, so each BRD is written and searchable straight away
+        searchIndexService = new SearchIndexService(null, null, new SimpleMeterRegistry(), indexDir.toString(),
+                Duration.ofSeconds(30));
+        for (int b = 0; b < requirements / REQUIREMENTS_PER_BRD; b++) {
+            BrdDocument brd = SampleData.brd(REQUIREMENTS_PER_BRD);
+            brd.setId((long) b);
+            brd.setTitle("BRD " + b + " from EMAIL");
+            for (Requirement req : brd.getRequirements()) {
+                req.setDescription(req.getDescription() + " B" + b);
+            }
+            searchIndexService.index(brd);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(indexDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public SearchPage broad() {
+        return searchIndexService.search("export invoices", 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage broadDeepPage() {
+        return searchIndexService.search("export invoices", 49, 20);
+    }
+
+    @Benchmark
+    public SearchPage selective() {
+        return searchIndexService.search("\"R417 B77\"", 0, 20);
+    }
+}
@@ -0,0 +1,179 @@
+package com.brdify.loadtest;
+
+import com.brdify.BrdifyApplication;
+import com.brdify.domain.*;
+import com.brdify.repository.BrdDocumentRepository;
+import com.brdify.repository.SourceDataRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Measures how fast a generated BRD's entity graph is written to the
+ * configured database, in rows per second. Each iteration saves a source
+ * row and one BRD with {@code --requirements} requirements, a quarter as
+ * many decisions, risks and timelines, a few stakeholders and one RTM entry
+ * per requirement, in one transaction, the way the pipeline does.
+ * <p>
+ * Run against a scratch MySQL schema, for example
+ * {@code mvn -Ploadtest verify -Dloadtest.main=com.brdify.loadtest.PersistBenchmark
+ * -Dloadtest.args="--requirements=2000 --iterations=10
+ * --spring.datasource.url=jdbc:mysql://localhost:3306/brdify_bench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"}.
+ * Options: {@code --requirements}, {@code --iterations}, {@code --warmup} and
+ * {@code --double-save} (save the BRD, then attach RTM entries and save it
+ * again, as the pipeline used to). Any other {@code --key=value} is passed
+ * to Spring, so {@code --spring.jpa.properties.hibernate.jdbc.batch_size=1}
+ * turns batching off. For the IDENTITY baseline, run the same class on a
+ * tree from before the table id generators.
+ */
+public class PersistBenchmark {
+
+    private final int requirements;
+    private final int iterations;
+    private final int warmup;
+    private final boolean doubleSave;
+
+    private final SourceDataRepository sourceDataRepository;
+    private final BrdDocumentRepository brdDocumentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    PersistBenchmark(Map<String, String> options, ConfigurableApplicationContext context) {
+        this.requirements = Integer.parseInt(options.getOrDefault("requirements", "2000"));
+        this.iterations = Integer.parseInt(options.getOrDefault("iterations", "10"));
+        this.warmup = Integer.parseInt(options.getOrDefault("warmup", "3"));
+        this.doubleSave = Boolean.parseBoolean(options.getOrDefault("double-save", "false"));
+        this.sourceDataRepository = context.getBean(SourceDataRepository.class);
+        this.brdDocumentRepository = context.getBean(BrdDocumentRepository.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    public static void main(String[] args) {
+        Set<String> own = Set.of("requirements", "iterations", "warmup", "double-save");
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                String key = arg.substring(2, arg.indexOf('='));
+                if (own.contains(key)) {
+                    options.put(key, arg.substring(arg.indexOf('=') + 1));
+                    continue;
+                }
+            }
+            springArgs.add(arg);
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BrdifyApplication.class)
+                .web(WebApplicationType.NONE)
+                // Nothing here calls Groq, but the service needs a key to start
+                .properties("groq.api.key=unused")
+                .run(springArgs.toArray(String[]::new))) {
+            new PersistBenchmark(options, context).run();
+        }
+    }
+
+    void run() {
+        int rowsPerBrd = 0;
+        for (int i = 0; i < warmup; i++) {
+            rowsPerBrd = persistOne(i);
+        }
+        System.out.printf("Persisting %d BRDs of %d rows (%d requirements)%s%n", iterations, rowsPerBrd,
+                requirements, doubleSave ? " with a second save for RTM entries" : "");
+
+        double[] rowsPerSecond = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            int rows = persistOne(warmup + i);
+            rowsPerSecond[i] = rows / ((System.nanoTime() - start) / 1e9);
+        }
+        Arrays.sort(rowsPerSecond);
+        System.out.printf("rows/s: min %.0f, median %.0f, max %.0f%n", rowsPerSecond[0],
+                rowsPerSecond[iterations / 2], rowsPerSecond[iterations - 1]);
+    }
+
+    // Returns the number of rows written
+    private int persistOne(int seed) {
+        return transactionTemplate.execute(status -> {
+            SourceData source = new SourceData();
+            source.setContent("Benchmark source " + seed);
+            source.setSourceType("TEXT_INPUT");
+            source = sourceDataRepository.save(source);
+
+            BrdDocument brd = new BrdDocument();
+            brd.setTitle("Persist benchmark " + seed);
+            brd.setStatus("GENERATED");
+            brd.setSummary("Generated by PersistBenchmark");
+            brd.setSourceData(source);
+            brd.setRequirements(new ArrayList<>());
+            brd.setDecisions(new ArrayList<>());
+            brd.setStakeholders(new ArrayList<>());
+            brd.setRisks(new ArrayList<>());
+            brd.setTimelines(new ArrayList<>());
+
+            int others = Math.max(1, requirements / 4);
+            for (int i = 0; i < requirements; i++) {
+                Requirement req = new Requirement();
+                req.setDescription("The system shall support scenario " + i + " of BRD " + seed + ".");
+                req.setSourceQuote("Customers asked for scenario " + i + " during the workshop.");
+                req.setType("FUNCTIONAL");
+                req.setPriority("MEDIUM");
+                req.setBrdDocument(brd);
+                brd.getRequirements().add(req);
+            }
+            for (int i = 0; i < others; i++) {
+                Decision dec = new Decision();
+                dec.setDescription("Decision " + i);
+                dec.setStatus("PENDING");
+                dec.setBrdDocument(brd);
+                brd.getDecisions().add(dec);
+
+                Risk risk = new Risk();
+                risk.setDescription("Risk " + i);
+                risk.setProbability("MEDIUM");
+                risk.setImpact("HIGH");
+                risk.setMitigation("Mitigation " + i);
+                risk.setBrdDocument(brd);
+                brd.getRisks().add(risk);
+
+                Timeline timeline = new Timeline();
+                timeline.setMilestone("Milestone " + i);
+                timeline.setExpectedDate("2025-01-01");
+                timeline.setDescription("Milestone " + i + " description");
+                timeline.setBrdDocument(brd);
+                brd.getTimelines().add(timeline);
+            }
+            for (int i = 0; i < 10; i++) {
+                Stakeholder sh = new Stakeholder();
+                sh.setName("Stakeholder " + i);
+                sh.setRole("Role " + i);
+                sh.setBrdDocument(brd);
+                brd.getStakeholders().add(sh);
+            }
+
+            if (doubleSave) {
+                brd = brdDocumentRepository.save(brd);
+            }
+            List<RtmEntry> rtmEntries = new ArrayList<>(requirements);
+            for (int i = 0; i < requirements; i++) {
+                RtmEntry rtm = new RtmEntry();
+                rtm.setBrdDocument(brd);
+                rtm.setRequirement(brd.getRequirements().get(i));
+                rtm.setSourceData(source);
+                rtm.setSourceChunk(brd.getRequirements().get(i).getSourceQuote());
+                rtm.setDecision(brd.getDecisions().get(i % others));
+                if (i % 2 == 0) {
+                    rtm.setRisk(brd.getRisks().get(i % others));
+                }
+                rtmEntries.add(rtm);
+            }
+            brd.setRtmEntries(rtmEntries);
+            brdDocumentRepository.save(brd);
+            // Include the flush in the measurement rather than leaving it to the commit
+            brdDocumentRepository.flush();
+
+            return 2 + 2 * requirements + 3 * others + 10;
+        });
+    }
+}
@@ -0,0 +1,268 @@
+package com.brdify.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives concurrent {@code /api/upload} traffic against a running backend
+ * and reports end-to-end latency (upload until the job completes), BRDs per
+ * minute and database connection pool usage sampled from the actuator.
+ * Point the backend at the local Groq stand-in ({@code groq-stub} profile)
+ * to measure the pipeline without spending API quota.
+ * <p>
+ * Run with {@code mvn -Ploadtest verify -Dloadtest.args="--uploads=200 --concurrency=16"}.
+ * Options: {@code --base-url}, {@code --uploads}, {@code --concurrency},
+ * {@code --size-kb}, {@code --poll-ms}, {@code --timeout-s}.
+ */
+public class UploadLoadTest {
+
+    private static final String[] SENTENCES = {
+            "We need the portal to export invoices as PDF before the audit.",
+            "The system shall lock an account after five failed login attempts.",
+            "Let's agree to ship the reporting module in the Q3 release.",
+            "There is a risk the vendor API will not support bulk updates.",
+            "Response times must stay under two seconds at peak load.",
+            "Finance wants a monthly reconciliation report emailed automatically.",
+            "Can we integrate with the existing SSO provider instead of building our own?",
+            "Milestone: UAT sign-off expected by 15 October 2024.",
+    };
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final int uploads;
+    private final int concurrency;
+    private final int sizeKb;
+    private final long pollMillis;
+    private final Duration timeout;
+
+    private final List<Long> latenciesMillis = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final PoolSampler poolSampler = new PoolSampler();
+
+    UploadLoadTest(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8082");
+        this.uploads = Integer.parseInt(options.getOrDefault("uploads", "50"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+        this.sizeKb = Integer.parseInt(options.getOrDefault("size-kb", "64"));
+        this.pollMillis = Long.parseLong(options.getOrDefault("poll-ms", "250"));
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-s", "600")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new UploadLoadTest(options).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Uploading %d x %d KB to %s with %d concurrent clients%n", uploads, sizeKb, baseUrl,
+                concurrency);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(poolSampler::sample, 0, 500, TimeUnit.MILLISECONDS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicInteger next = new AtomicInteger();
+        long started = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            clients.execute(() -> {
+                for (int i = next.getAndIncrement(); i < uploads; i = next.getAndIncrement()) {
+                    runOne(i);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.DAYS);
+        double elapsedMinutes = (System.nanoTime() - started) / 60e9;
+
+        sampler.shutdownNow();
+        report(elapsedMinutes);
+    }
+
+    private void runOne(int index) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> accepted = upload(index);
+            if (accepted.statusCode() == 503) {
+                rejected.incrementAndGet();
+                return;
+            }
+            if (accepted.statusCode() != 202) {
+                System.err.printf("Upload %d: HTTP %d%n", index, accepted.statusCode());
+                failed.incrementAndGet();
+                return;
+            }
+
+            String jobId = objectMapper.readTree(accepted.body()).path("id").asText();
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(pollMillis);
+                JsonNode job = objectMapper.readTree(get("/api/jobs/" + jobId).body());
+                String status = job.path("status").asText();
+                if ("COMPLETED".equals(status)) {
+                    latenciesMillis.add((System.nanoTime() - start) / 1_000_000);
+                    completed.incrementAndGet();
+                    return;
+                }
+                if ("FAILED".equals(status)) {
+                    System.err.printf("Upload %d: job failed: %s%n", index, job.path("error").asText());
+                    failed.incrementAndGet();
+                    return;
+                }
+            }
+            System.err.printf("Upload %d: timed out after %s%n", index, timeout);
+            failed.incrementAndGet();
+        } catch (IOException e) {
+            System.err.printf("Upload %d: %s%n", index, e.getMessage());
+            failed.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<String> upload(int index) throws IOException, InterruptedException {
+        String boundary = "brdify-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-" + index + ".txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(transcript(index, sizeKb * 1024).getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/upload"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Distinct text per upload so response caches can't short-circuit the pipeline
+    private static String transcript(int index, int targetChars) {
+        Random random = new Random(index);
+        StringBuilder sb = new StringBuilder(targetChars + 256);
+        sb.append("Meeting ").append(index).append(" notes\n\n");
+        while (sb.length() < targetChars) {
+            sb.append("Speaker ").append(random.nextInt(6)).append(": ");
+            for (int s = 1 + random.nextInt(4); s > 0; s--) {
+                sb.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            sb.append("(ref ").append(random.nextInt(1_000_000)).append(")\n");
+            if (random.nextInt(6) == 0) {
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private void report(double elapsedMinutes) {
+        List<Long> sorted;
+        synchronized (latenciesMillis) {
+            sorted = new ArrayList<>(latenciesMillis);
+        }
+        Collections.sort(sorted);
+
+        System.out.println();
+        System.out.printf("Completed %d, failed %d, rejected (503) %d in %.1f s%n", completed.get(), failed.get(),
+                rejected.get(), elapsedMinutes * 60);
+        System.out.printf("Throughput: %.1f BRDs/min%n", completed.get() / elapsedMinutes);
+        if (!sorted.isEmpty()) {
+            System.out.printf("Latency (upload to BRD): p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                    sorted.get(sorted.size() - 1));
+        }
+        poolSampler.report();
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(List<Long> sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * Samples the Hikari pool gauges exposed under /actuator/metrics.
+     */
+    private class PoolSampler {
+        private double maxActive;
+        private double totalActive;
+        private double maxPending;
+        private double maxConnections;
+        private int samples;
+        private boolean warned;
+
+        synchronized void sample() {
+            try {
+                double active = metric("hikaricp.connections.active", "VALUE");
+                double pending = metric("hikaricp.connections.pending", "VALUE");
+                maxConnections = metric("hikaricp.connections.max", "VALUE");
+                maxActive = Math.max(maxActive, active);
+                maxPending = Math.max(maxPending, pending);
+                totalActive += active;
+                samples++;
+            } catch (IOException | RuntimeException e) {
+                if (!warned) {
+                    System.err.println("Could not read pool metrics from /actuator/metrics: " + e.getMessage());
+                    warned = true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized void report() {
+            if (samples == 0) {
+                System.out.println("DB connections: no samples (is the actuator metrics endpoint exposed?)");
+                return;
+            }
+            System.out.printf("DB connections: active avg %.1f, max %.0f of %.0f; max threads waiting %.0f%n",
+                    totalActive / samples, maxActive, maxConnections, maxPending);
+            try {
+                // Timer of how long each connection was held, across the whole run
+                System.out.printf("DB connection hold time: mean %.1f ms, max %.1f ms over %.0f checkouts%n",
+                        metric("hikaricp.connections.usage", "TOTAL_TIME") * 1000
+                                / Math.max(1, metric("hikaricp.connections.usage", "COUNT")),
+                        metric("hikaricp.connections.usage", "MAX") * 1000,
+                        metric("hikaricp.connections.usage", "COUNT"));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not read hikaricp.connections.usage: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private double metric(String name, String statistic) throws IOException, InterruptedException {
+            JsonNode body = objectMapper.readTree(get("/actuator/metrics/" + name).body());
+            for (JsonNode measurement : body.path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+            throw new IllegalStateException(name + " has no " + statistic + " measurement");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.brdify.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills brd_document.source_type for BRDs created before the column
+ * existed, so the source type filter of the BRD list covers them too. Only
+ * rows still missing it are touched, so this is a no-op once done.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class BrdSourceTypeBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        int updated = jdbcTemplate.update("""
+                UPDATE brd_document b JOIN source_data s ON s.id = b.source_data_id
+                SET b.source_type = s.source_type
+                WHERE b.source_type IS NULL AND s.source_type IS NOT NULL""");
+        if (updated > 0) {
+            log.info("Copied the source type onto {} existing BRDs", updated);
+        }
+    }
+}
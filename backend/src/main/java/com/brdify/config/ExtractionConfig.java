@@ -0,0 +1,25 @@
+package com.brdify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExtractionConfig {
+
+    // Threads that map Groq replies onto entities and write them to the response cache.
+    // Groq calls themselves hold no thread; how many are in flight is the scheduler's AIMD limit.
+    @Value("${brdify.extraction.concurrency:4}")
+    private int concurrency;
+
+    @Bean(name = "extractionExecutor")
+    public ThreadPoolTaskExecutor extractionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("extract-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,102 @@
+package com.brdify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "groq")
+public class GroqProperties {
+
+    private Api api = new Api();
+
+    // Defaults for models without an entry in 'models'
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(90);
+    private int requestsPerMinute = 30;
+    private int tokensPerMinute = 12000;
+
+    // Token budgets used to size extraction chunks and to reserve rate-limit budget
+    private int contextWindow = 131072;
+    private int inputTokenBudget = 4000;
+    private int maxOutputTokens = 2048;
+
+    private Scheduler scheduler = new Scheduler();
+
+    // Per-model overrides, e.g. groq.models[llama-3.1-8b-instant].read-timeout=20s
+    private Map<String, ModelSettings> models = new HashMap<>();
+
+    public Duration connectTimeoutFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getConnectTimeout() != null ? settings.getConnectTimeout()
+                : connectTimeout;
+    }
+
+    public Duration readTimeoutFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getReadTimeout() != null ? settings.getReadTimeout() : readTimeout;
+    }
+
+    public int requestsPerMinuteFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getRequestsPerMinute() != null ? settings.getRequestsPerMinute()
+                : requestsPerMinute;
+    }
+
+    public int tokensPerMinuteFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getTokensPerMinute() != null ? settings.getTokensPerMinute()
+                : tokensPerMinute;
+    }
+
+    public int contextWindowFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getContextWindow() != null ? settings.getContextWindow() : contextWindow;
+    }
+
+    public int inputTokenBudgetFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getInputTokenBudget() != null ? settings.getInputTokenBudget()
+                : inputTokenBudget;
+    }
+
+    public int maxOutputTokensFor(String model) {
+        ModelSettings settings = models.get(model);
+        return settings != null && settings.getMaxOutputTokens() != null ? settings.getMaxOutputTokens()
+                : maxOutputTokens;
+    }
+
+    @Data
+    public static class Api {
+        private String key;
+        private String url = "https://api.groq.com/openai/v1/chat/completions";
+    }
+
+    @Data
+    public static class ModelSettings {
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Integer requestsPerMinute;
+        private Integer tokensPerMinute;
+        private Integer contextWindow;
+        private Integer inputTokenBudget;
+        private Integer maxOutputTokens;
+    }
+
+    @Data
+    public static class Scheduler {
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(60);
+
+        // Bounds for the adaptive (AIMD) per-model concurrency limit
+        private int initialConcurrency = 4;
+        private int minConcurrency = 1;
+        private int maxConcurrency = 32;
+    }
+}
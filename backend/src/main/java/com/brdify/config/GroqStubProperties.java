@@ -0,0 +1,43 @@
+package com.brdify.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of the local Groq stand-in enabled by the {@code groq-stub} profile.
+ */
+@Data
+@Component
+@Profile("groq-stub")
+@ConfigurationProperties(prefix = "brdify.groq-stub")
+public class GroqStubProperties {
+
+    public enum LatencyDistribution {
+        FIXED, // Always latency-median
+        UNIFORM, // Uniform between latency-min and latency-max
+        LOG_NORMAL // Long-tailed, fitted to latency-median and latency-p99
+    }
+
+    private LatencyDistribution latencyDistribution = LatencyDistribution.LOG_NORMAL;
+    private Duration latencyMin = Duration.ofMillis(200);
+    private Duration latencyMedian = Duration.ofMillis(800);
+    private Duration latencyP99 = Duration.ofSeconds(4);
+    private Duration latencyMax = Duration.ofSeconds(20);
+
+    // Fraction of calls answered with 429 and the Retry-After sent with them
+    private double throttleRate = 0.0;
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    // Fraction of completions whose content is cut off mid-JSON
+    private double malformedRate = 0.0;
+
+    // Shape of the templated extraction JSON
+    private int requirementsPerChunk = 8;
+    private int decisionsPerChunk = 2;
+    private int risksPerChunk = 2;
+    private int timelinesPerChunk = 1;
+}
@@ -0,0 +1,54 @@
+package com.brdify.config;
+
+import com.brdify.domain.IdGeneration;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves each table-backed id generator past the ids already in its table.
+ * Databases created before the switch from IDENTITY hold rows whose ids the
+ * generators would otherwise hand out again. Runs once the schema has been
+ * updated and before any request is served; it never lowers a value, so
+ * repeated runs are harmless.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    // Generator name -> table; the name is each entity's pkColumnValue
+    private static final List<String> TABLES = List.of(
+            "requirement", "decision", "stakeholder", "risk", "timeline", "rtm_entry");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void alignWithExistingIds() {
+        for (String table : TABLES) {
+            // A block starts at (stored value - allocation size + 1), so the stored value
+            // must be at least max(id) + allocation size for the next block to be unused
+            long floor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class)
+                    + IdGeneration.ALLOCATION_SIZE;
+            int raised = jdbcTemplate.update("UPDATE " + IdGeneration.TABLE + " SET " + IdGeneration.VALUE_COLUMN
+                    + " = ? WHERE " + IdGeneration.NAME_COLUMN + " = ? AND " + IdGeneration.VALUE_COLUMN + " < ?",
+                    floor, table, floor);
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + IdGeneration.TABLE + " WHERE "
+                    + IdGeneration.NAME_COLUMN + " = ?", Integer.class, table);
+            if (rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + IdGeneration.TABLE + " (" + IdGeneration.NAME_COLUMN + ", "
+                        + IdGeneration.VALUE_COLUMN + ") VALUES (?, ?)", table, floor);
+                raised = 1;
+            }
+            if (raised > 0) {
+                log.info("Id generator for {} starts at {}", table, floor - IdGeneration.ALLOCATION_SIZE + 1);
+            }
+        }
+    }
+}
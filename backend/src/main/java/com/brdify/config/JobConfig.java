@@ -0,0 +1,27 @@
+package com.brdify.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class JobConfig {
+
+    @Value("${brdify.jobs.workers:2}")
+    private int workers;
+
+    // Uploads beyond workers + queue capacity are rejected instead of piling up
+    @Value("${brdify.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("brd-job-");
+        return executor;
+    }
+}
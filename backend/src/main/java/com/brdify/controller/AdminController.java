@@ -0,0 +1,28 @@
+package com.brdify.controller;
+
+import com.brdify.service.GroqResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final GroqResponseCache groqResponseCache;
+
+    @DeleteMapping("/groq-cache")
+    public ResponseEntity<Map<String, Long>> clearGroqCache() {
+        return ResponseEntity.ok(Map.of("removed", groqResponseCache.invalidateAll()));
+    }
+
+    @DeleteMapping("/groq-cache/{key}")
+    public ResponseEntity<Void> evictGroqCacheEntry(@PathVariable String key) {
+        return groqResponseCache.invalidate(key)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,43 +1,167 @@
 package com.brdify.controller;
 
 import com.brdify.domain.BrdDocument;
+import com.brdify.domain.BrdJob;
+import com.brdify.dto.BrdHeader;
+import com.brdify.dto.BrdListPage;
+import com.brdify.dto.BrdPatch;
+import com.brdify.dto.BulkExportRequest;
+import com.brdify.dto.SearchPage;
+import com.brdify.dto.SectionPage;
+import com.brdify.service.BrdJobService;
 import com.brdify.service.BrdService;
+import com.brdify.service.BulkExportService;
+import com.brdify.service.ExportService;
+import com.brdify.service.SearchIndexService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*") // Allow frontend to call
 @RequiredArgsConstructor
 public class BrdController {
 
+    private static final int MAX_LIST_PAGE_SIZE = 100;
+    private static final int MAX_SECTION_PAGE_SIZE = 500;
+
     private final BrdService brdService;
-    private final com.brdify.service.DocumentGenerationService documentGenerationService;
+    private final BrdJobService brdJobService;
+    private final SearchIndexService searchIndexService;
+    private final ExportService exportService;
+    private final BulkExportService bulkExportService;
     private final com.brdify.service.RtmService rtmService;
 
     @PostMapping("/upload")
-    public ResponseEntity<BrdDocument> uploadFile(@RequestParam("file") MultipartFile file) {
-        try {
-            String content = new String(file.getBytes(), StandardCharsets.UTF_8);
-            String sourceType = file.getOriginalFilename().endsWith(".txt") ? "TRANSCRIPT" : "DOCUMENT";
+    public ResponseEntity<BrdJob> uploadFile(@RequestParam("file") MultipartFile file) {
+        String filename = file.getOriginalFilename();
+        String sourceType = filename != null && filename.endsWith(".txt") ? "TRANSCRIPT" : "DOCUMENT";
 
-            BrdDocument brd = brdService.processSourceData(content, sourceType);
-            return ResponseEntity.ok(brd);
+        // Spool to our own temp file (the multipart one is deleted when the request ends)
+        // so the job can stream it without loading it into memory
+        Path spooled;
+        try {
+            spooled = Files.createTempFile("brdify-upload-", ".txt");
         } catch (IOException e) {
             return ResponseEntity.internalServerError().build();
         }
+        try {
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            deleteQuietly(spooled);
+            return ResponseEntity.internalServerError().build();
+        } catch (RuntimeException e) {
+            deleteQuietly(spooled);
+            throw e;
+        }
+
+        // From here the job owns the file and deletes it when it finishes or is rejected
+        return submitJob(() -> brdJobService.submitFile(spooled, sourceType));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", file, e);
+        }
     }
 
     @PostMapping("/upload-text")
-    public ResponseEntity<BrdDocument> uploadText(@RequestBody String content) {
-        BrdDocument brd = brdService.processSourceData(content, "TEXT_INPUT");
-        return ResponseEntity.ok(brd);
+    public ResponseEntity<BrdJob> uploadText(@RequestBody String content) {
+        return submitJob(() -> brdJobService.submitText(content, "TEXT_INPUT"));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<BrdJob> getJob(@PathVariable String id) {
+        return ResponseEntity.of(brdJobService.getJob(id));
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String id) {
+        return brdJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(brdJobService.subscribe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<BrdJob> submitJob(Supplier<BrdJob> submission) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(submission.get());
+        } catch (TaskRejectedException e) {
+            // Worker pool and queue are saturated; let the client retry later
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/brds")
+    public ResponseEntity<BrdListPage> listBrds(@RequestParam(required = false) String status,
+            @RequestParam(required = false) String sourceType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            int pageSize = Math.min(limit, MAX_LIST_PAGE_SIZE);
+            return ResponseEntity.ok(brdService.listBrds(status, sourceType, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/brds/export")
+    public ResponseEntity<StreamingResponseBody> bulkExport(@RequestBody BulkExportRequest request) {
+        List<Long> ids;
+        try {
+            ids = bulkExportService.resolve(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<ExportService.Format> formats = request.getFormats();
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=brds.zip")
+                .header("Content-Type", "application/zip")
+                .body(out -> bulkExportService.writeZip(ids, formats, out));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage> search(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank() || page < 0 || size < 1 || size > MAX_LIST_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(searchIndexService.search(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Re-reads every BRD into the search index in the background
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        searchIndexService.requestRebuild();
+        return ResponseEntity.accepted().build();
     }
 
     @GetMapping("/brd/{id}")
@@ -45,36 +169,116 @@ public class BrdController {
         return ResponseEntity.ok(brdService.getBrd(id));
     }
 
+    @GetMapping("/brd/{id}/header")
+    public ResponseEntity<BrdHeader> getBrdHeader(@PathVariable Long id) {
+        return ResponseEntity.ok(brdService.getHeader(id));
+    }
+
+    @GetMapping("/brd/{id}/sections/{section}")
+    public ResponseEntity<SectionPage<?>> getBrdSection(@PathVariable Long id, @PathVariable String section,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(brdService.getSection(id, section, page, Math.min(size, MAX_SECTION_PAGE_SIZE)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * The BRD's traceability matrix as flat rows. With {@code page} it is one
+     * page of {@code size} rows; without, the whole matrix streamed as a JSON
+     * array.
+     */
     @GetMapping("/brd/{id}/rtm")
-    public ResponseEntity<List<com.brdify.domain.RtmEntry>> getRtm(@PathVariable Long id) {
-        return ResponseEntity.ok(rtmService.getRtmForBrd(id));
+    public ResponseEntity<?> getRtm(@PathVariable Long id,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "100") int size) {
+        if (page != null) {
+            if (page < 0 || size < 1) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(rtmService.getRtmPage(id, page, Math.min(size, MAX_SECTION_PAGE_SIZE)));
+        }
+        StreamingResponseBody body = out -> rtmService.writeRtm(id, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * The BRD's whole traceability matrix as a CSV or XLSX download, streamed
+     * from the database into the response.
+     */
+    @GetMapping("/brd/{id}/rtm/csv")
+    public ResponseEntity<StreamingResponseBody> downloadRtmCsv(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=brd-" + id + "-rtm.csv")
+                .header("Content-Type", "text/csv; charset=UTF-8")
+                .body(out -> rtmService.writeRtmCsv(id, out));
+    }
+
+    @GetMapping("/brd/{id}/rtm/xlsx")
+    public ResponseEntity<StreamingResponseBody> downloadRtmXlsx(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=brd-" + id + "-rtm.xlsx")
+                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                .body(out -> rtmService.writeRtmXlsx(id, out));
     }
 
     @PutMapping("/brd/{id}")
     public ResponseEntity<BrdDocument> updateBrd(@PathVariable Long id, @RequestBody BrdDocument updatedData) {
-        BrdDocument brd = brdService.updateBrd(id, updatedData);
-        return ResponseEntity.ok(brd);
+        return saveEdit(() -> brdService.updateBrd(id, updatedData));
     }
 
-    @GetMapping("/brd/{id}/pdf")
-    public ResponseEntity<byte[]> downloadPdf(@PathVariable Long id) {
-        BrdDocument brd = brdService.getBrd(id);
-        byte[] pdfBytes = documentGenerationService.generatePdf(brd);
+    @PatchMapping("/brd/{id}")
+    public ResponseEntity<BrdDocument> patchBrd(@PathVariable Long id, @RequestBody BrdPatch patch) {
+        return saveEdit(() -> brdService.patchBrd(id, patch));
+    }
 
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=brd-" + id + ".pdf")
-                .header("Content-Type", "application/pdf")
-                .body(pdfBytes);
+    private ResponseEntity<BrdDocument> saveEdit(Supplier<BrdDocument> edit) {
+        try {
+            return ResponseEntity.ok(edit.get());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Someone saved since this client loaded the BRD; it has to reload and reapply
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/brd/{id}/pdf")
+    public ResponseEntity<StreamingResponseBody> downloadPdf(@PathVariable Long id, WebRequest request) {
+        return download(id, ExportService.Format.PDF, request);
     }
 
     @GetMapping("/brd/{id}/docx")
-    public ResponseEntity<byte[]> downloadDocx(@PathVariable Long id) {
-        BrdDocument brd = brdService.getBrd(id);
-        byte[] docxBytes = documentGenerationService.generateDocx(brd);
+    public ResponseEntity<StreamingResponseBody> downloadDocx(@PathVariable Long id, WebRequest request) {
+        return download(id, ExportService.Format.DOCX, request);
+    }
 
-        return ResponseEntity.ok()
-                .header("Content-Disposition", "attachment; filename=brd-" + id + ".docx")
-                .header("Content-Type", "application/vnd.openxmlformats-officedocument.wordprocessingml.document")
-                .body(docxBytes);
+    private ResponseEntity<StreamingResponseBody> download(Long id, ExportService.Format format,
+            WebRequest request) {
+        LocalDateTime updatedAt = exportService.lastModified(id);
+        if (request.checkNotModified(ExportService.etag(id, updatedAt, format),
+                ExportService.lastModifiedMillis(updatedAt))) {
+            // 304 and its headers are already set; nothing is loaded or rendered
+            return null;
+        }
+
+        ExportService.Export export = exportService.export(id, updatedAt, format);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=brd-" + id + "." + format.extension())
+                .header("Content-Type", format.contentType())
+                .eTag(ExportService.etag(id, export.updatedAt(), format))
+                .lastModified(ExportService.lastModifiedMillis(export.updatedAt()))
+                // Browsers may keep the file but must revalidate, which is a cheap 304 when unchanged
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (export.contentLength() != null) {
+            response.contentLength(export.contentLength());
+        }
+        // Rendered into the response as it is produced; without a length it goes out chunked
+        return response.body(export::writeTo);
     }
 }
@@ -0,0 +1,199 @@
+package com.brdify.controller;
+
+import com.brdify.config.GroqStubProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for Groq's chat-completions endpoint so the pipeline can be
+ * load-tested without spending API quota. Enabled by the {@code groq-stub}
+ * profile, which also points {@code groq.api.url} here. Extraction prompts
+ * get templated JSON built from the chunk's own sentences; every other
+ * prompt gets a short canned text. Latency, 429s and malformed output are
+ * configured under {@code brdify.groq-stub.*}.
+ */
+@Profile("groq-stub")
+@RestController
+@RequestMapping("/stub/groq")
+@RequiredArgsConstructor
+public class GroqStubController {
+
+    // 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final GroqStubProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Replies are released from here after the sampled latency, so a slow
+    // stub call holds no servlet thread while the app under test shares the JVM
+    private final ScheduledExecutorService replies = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "groq-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void shutdown() {
+        replies.shutdownNow();
+    }
+
+    @PostMapping("/chat/completions")
+    public CompletableFuture<ResponseEntity<JsonNode>> chatCompletions(@RequestBody JsonNode request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String model = request.path("model").asText();
+
+        // Real rate-limit rejections come back before any generation happens
+        if (random.nextDouble() < properties.getThrottleRate()) {
+            count(model, "throttled");
+            ObjectNode error = objectMapper.createObjectNode();
+            error.putObject("error").put("message", "Rate limit reached (stub)").put("type", "tokens");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", Double.toString(properties.getRetryAfter().toMillis() / 1000.0))
+                    .body(error));
+        }
+
+        String systemPrompt = "";
+        String userContent = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("system".equals(message.path("role").asText())) {
+                systemPrompt = message.path("content").asText();
+            } else if ("user".equals(message.path("role").asText())) {
+                userContent = message.path("content").asText();
+            }
+        }
+
+        String content = systemPrompt.contains("extract structured business requirements")
+                ? extraction(userContent, random)
+                : "Executive summary (stub): the stakeholders agreed the scope, key requirements, risks and milestones "
+                        + "described in the source material.";
+        if (random.nextDouble() < properties.getMalformedRate()) {
+            count(model, "malformed");
+            content = content.substring(0, content.length() / 2);
+        } else {
+            count(model, "ok");
+        }
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", "chatcmpl-stub-" + UUID.randomUUID());
+        response.put("object", "chat.completion");
+        response.put("model", model);
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+
+        CompletableFuture<ResponseEntity<JsonNode>> reply = new CompletableFuture<>();
+        replies.schedule(() -> reply.complete(ResponseEntity.ok(response)), sampleLatency(random).toMillis(),
+                TimeUnit.MILLISECONDS);
+        return reply;
+    }
+
+    private String extraction(String userContent, ThreadLocalRandom random) {
+        // Skip the instruction line in front of the chunk
+        int chunkStart = userContent.indexOf("\n\n");
+        String chunk = chunkStart >= 0 ? userContent.substring(chunkStart + 2) : userContent;
+
+        List<String> sentences = new ArrayList<>();
+        for (String sentence : chunk.split("(?<=[.!?])\\s+|\\n+")) {
+            if (sentence.trim().length() > 20) {
+                sentences.add(sentence.trim());
+            }
+        }
+        if (sentences.isEmpty()) {
+            sentences.add("the behaviour described in the source text");
+        }
+
+        ObjectNode root = objectMapper.createObjectNode();
+        int decisions = properties.getDecisionsPerChunk();
+        int risks = properties.getRisksPerChunk();
+        int timelines = properties.getTimelinesPerChunk();
+
+        ArrayNode requirementNodes = root.putArray("requirements");
+        for (int i = 0; i < properties.getRequirementsPerChunk(); i++) {
+            String sentence = sentences.get(random.nextInt(sentences.size()));
+            ObjectNode req = requirementNodes.addObject();
+            req.put("description", "The system shall support: " + sentence);
+            req.put("sourceQuote", firstWords(sentence, 12));
+            putIndexOrNull(req, "relatedDecisionIndex", decisions, random);
+            putIndexOrNull(req, "relatedRiskIndex", risks, random);
+            putIndexOrNull(req, "relatedTimelineIndex", timelines, random);
+        }
+
+        ArrayNode decisionNodes = root.putArray("decisions");
+        for (int i = 0; i < decisions; i++) {
+            decisionNodes.add("Agreed: " + sentences.get(random.nextInt(sentences.size())));
+        }
+
+        ArrayNode riskNodes = root.putArray("risks");
+        for (int i = 0; i < risks; i++) {
+            riskNodes.addObject()
+                    .put("description", "Delivery risk around " + firstWords(sentences.get(random.nextInt(sentences.size())), 8))
+                    .put("probability", "MEDIUM")
+                    .put("impact", "HIGH")
+                    .put("mitigation", "Review with stakeholders before sign-off");
+        }
+
+        ArrayNode timelineNodes = root.putArray("timeline");
+        for (int i = 0; i < timelines; i++) {
+            timelineNodes.addObject()
+                    .put("milestone", "Milestone " + (i + 1))
+                    .put("expectedDate", "2025-Q" + (1 + random.nextInt(4)))
+                    .put("description", "Checkpoint for " + firstWords(sentences.get(random.nextInt(sentences.size())), 6));
+        }
+
+        root.putArray("stakeholders").add("Product Owner: Sponsor").add("Engineering Lead: Delivery");
+        return root.toString();
+    }
+
+    private void putIndexOrNull(ObjectNode node, String field, int size, ThreadLocalRandom random) {
+        if (size == 0 || random.nextInt(3) == 0) {
+            node.putNull(field);
+        } else {
+            node.put(field, random.nextInt(size));
+        }
+    }
+
+    private String firstWords(String sentence, int words) {
+        String[] parts = sentence.split("\\s+");
+        return String.join(" ", List.of(parts).subList(0, Math.min(words, parts.length)));
+    }
+
+    private Duration sampleLatency(ThreadLocalRandom random) {
+        long min = properties.getLatencyMin().toMillis();
+        long max = properties.getLatencyMax().toMillis();
+        long median = properties.getLatencyMedian().toMillis();
+        long millis = switch (properties.getLatencyDistribution()) {
+            case FIXED -> median;
+            case UNIFORM -> min + random.nextLong(Math.max(1, max - min + 1));
+            case LOG_NORMAL -> {
+                double sigma = Math.log((double) properties.getLatencyP99().toMillis() / Math.max(1, median)) / Z_99;
+                yield Math.round(median * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+        return Duration.ofMillis(Math.max(min, Math.min(max, millis)));
+    }
+
+    private void count(String model, String outcome) {
+        meterRegistry.counter("brdify.groq.stub.requests", "model", model, "outcome", outcome).increment();
+    }
+}
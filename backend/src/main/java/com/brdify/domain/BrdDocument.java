@@ -1,12 +1,19 @@
 package com.brdify.domain;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Data
+// Keyset pagination of the BRD list, newest first, optionally filtered by one column
+@Table(indexes = {
+        @Index(name = "idx_brd_created", columnList = "createdAt, id"),
+        @Index(name = "idx_brd_status_created", columnList = "status, createdAt, id"),
+        @Index(name = "idx_brd_source_type_created", columnList = "sourceType, createdAt, id")
+})
 public class BrdDocument {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,6 +21,8 @@ public class BrdDocument {
 
     private String title;
     private String status;
+    // Copy of sourceData.sourceType so the list can filter on it without a join
+    private String sourceType;
 
     @Lob
     @Column(columnDefinition = "LONGTEXT")
@@ -22,26 +31,42 @@ public class BrdDocument {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    @OneToOne
+    // Optimistic lock: concurrent edits of the same BRD get a conflict instead of overwriting each other.
+    // Null until the first persist seeds it, which is what marks a new BRD as new for save()
+    @Version
+    @Column(columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
+    // The raw source can be megabytes; it is never part of the BRD's JSON
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "source_data_id")
+    @JsonIgnore
     private SourceData sourceData;
 
-    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    // Sections load on first access (see BrdService.getBrd), or a page at a time through their repositories
+    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<Requirement> requirements;
 
-    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<Decision> decisions;
 
-    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<Stakeholder> stakeholders;
 
-    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<Risk> risks;
 
-    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @OrderBy("id")
     private List<Timeline> timelines;
 
+    // Served by /api/brd/{id}/rtm
     @OneToMany(mappedBy = "brdDocument", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @JsonIgnore
     private List<RtmEntry> rtmEntries;
 
     @PrePersist
@@ -0,0 +1,45 @@
+package com.brdify.domain;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory record of an asynchronous BRD generation run. Not persisted;
+ * jobs are dropped after the configured retention period.
+ */
+@Data
+public class BrdJob {
+    private final String id;
+
+    private volatile String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private volatile String stage; // PREPROCESSING, SUMMARIZING, EXTRACTING, PERSISTING
+    // Replaced as a whole, so readers never see done and total from different updates
+    @JsonUnwrapped
+    @Setter(AccessLevel.NONE)
+    private volatile ChunkProgress chunkProgress = new ChunkProgress(0, 0);
+    private volatile Long brdId;
+    private volatile String error;
+    // Wall-clock milliseconds per pipeline stage, filled in as stages finish
+    private final Map<String, Long> stageMillis = new ConcurrentHashMap<>();
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile LocalDateTime updatedAt = LocalDateTime.now();
+
+    public record ChunkProgress(int chunksDone, int chunksTotal) {
+    }
+
+    /**
+     * Records chunk progress reported from any thread. Reports can arrive
+     * out of order, so neither count ever moves backwards.
+     */
+    public synchronized void advanceChunkProgress(int chunksDone, int chunksTotal) {
+        ChunkProgress current = chunkProgress;
+        chunkProgress = new ChunkProgress(Math.max(current.chunksDone(), chunksDone),
+                Math.max(current.chunksTotal(), chunksTotal));
+    }
+}
@@ -7,7 +7,10 @@ import lombok.Data;
 @Data
 public class Decision {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "decision_ids")
+    @TableGenerator(name = "decision_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "decision",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Lob
@@ -16,7 +19,7 @@ public class Decision {
 
     private String status; // AGREED, PENDING, REJECTED
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brd_document_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private BrdDocument brdDocument;
@@ -0,0 +1,27 @@
+package com.brdify.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+public class GroqCacheEntry {
+    // SHA-256 of model, system prompt, user content and temperature
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String key;
+
+    private String model;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String response;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
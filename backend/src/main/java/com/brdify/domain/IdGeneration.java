@@ -0,0 +1,20 @@
+package com.brdify.domain;
+
+/**
+ * Shared settings for the table-backed id generators of the entities saved
+ * in bulk with a BRD. IDENTITY columns make Hibernate insert every row on
+ * its own to learn its id; these generators hand out blocks of ids instead,
+ * so the rows of a BRD go out as JDBC batches.
+ */
+public final class IdGeneration {
+
+    public static final String TABLE = "id_sequence";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // Ids reserved per round-trip to the id table; matches hibernate.jdbc.batch_size
+    public static final int ALLOCATION_SIZE = 100;
+
+    private IdGeneration() {
+    }
+}
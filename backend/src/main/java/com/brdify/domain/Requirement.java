@@ -7,7 +7,10 @@ import lombok.Data;
 @Data
 public class Requirement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "requirement_ids")
+    @TableGenerator(name = "requirement_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "requirement",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Lob
@@ -21,11 +24,19 @@ public class Requirement {
     private String type; // FUNCTIONAL, NON_FUNCTIONAL
     private String priority; // HIGH, MEDIUM, LOW
 
+    // Null until persisted, so an edit that leaves it out doesn't reset a stored flag
     @Column(name = "has_conflict")
-    private Boolean hasConflict = false;
+    private Boolean hasConflict;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brd_document_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private BrdDocument brdDocument;
+
+    @PrePersist
+    protected void onCreate() {
+        if (hasConflict == null) {
+            hasConflict = false;
+        }
+    }
 }
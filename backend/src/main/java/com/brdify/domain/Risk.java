@@ -7,7 +7,10 @@ import lombok.Data;
 @Data
 public class Risk {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "risk_ids")
+    @TableGenerator(name = "risk_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "risk",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @Column(columnDefinition = "TEXT")
@@ -17,7 +20,7 @@ public class Risk {
     private String impact; // LOW, MEDIUM, HIGH
     private String mitigation; // Proposed mitigation strategy
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brd_document_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private BrdDocument brdDocument;
@@ -6,9 +6,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Data
+// The matrix is read per BRD in entry order
+@Table(indexes = @Index(name = "idx_rtm_brd", columnList = "brd_document_id, id"))
 public class RtmEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rtm_entry_ids")
+    @TableGenerator(name = "rtm_entry_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "rtm_entry",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +21,7 @@ public class RtmEntry {
     @JsonIgnore
     private BrdDocument brdDocument;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requirement_id")
     private Requirement requirement;
 
@@ -29,15 +34,15 @@ public class RtmEntry {
     @Column(columnDefinition = "LONGTEXT")
     private String sourceChunk;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "decision_id")
     private Decision decision;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "timeline_id")
     private Timeline timeline;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "risk_id")
     private Risk risk;
 }
@@ -11,6 +11,7 @@ public class SourceData {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Only sources saved before uploads were split into SourceDataPart rows have their text here
     @Lob
     @Column(columnDefinition = "LONGTEXT")
     private String content;
@@ -0,0 +1,29 @@
+package com.brdify.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * One piece of an upload's raw text; the pieces of a source in
+ * {@code partIndex} order make up the whole text. Stored this way so no
+ * single statement carries the whole upload: the MySQL driver buffers a
+ * parameter in full before sending it, and one value larger than
+ * {@code max_allowed_packet} is rejected.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_source_part", columnList = "source_data_id, partIndex", unique = true))
+public class SourceDataPart {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "source_data_id")
+    private SourceData sourceData;
+
+    private int partIndex;
+
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String content;
+}
@@ -7,14 +7,17 @@ import lombok.Data;
 @Data
 public class Stakeholder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "stakeholder_ids")
+    @TableGenerator(name = "stakeholder_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "stakeholder",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     private String name;
     private String role;
     private String contactInfo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brd_document_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private BrdDocument brdDocument;
@@ -7,7 +7,10 @@ import lombok.Data;
 @Data
 public class Timeline {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "timeline_ids")
+    @TableGenerator(name = "timeline_ids", table = IdGeneration.TABLE, pkColumnName = IdGeneration.NAME_COLUMN,
+            valueColumnName = IdGeneration.VALUE_COLUMN, pkColumnValue = "timeline",
+            allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
 
     private String milestone;
@@ -19,7 +22,7 @@ public class Timeline {
     // now to avoid parsing errors
     private String expectedDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brd_document_id")
     @com.fasterxml.jackson.annotation.JsonIgnore
     private BrdDocument brdDocument;
@@ -0,0 +1,22 @@
+package com.brdify.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A BRD without its sections: the header fields plus how many items each
+ * section holds. Read with a single query; no child rows are loaded.
+ */
+public record BrdHeader(Long id,
+        String title,
+        String status,
+        String summary,
+        String sourceType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        Long requirementCount,
+        Long decisionCount,
+        Long stakeholderCount,
+        Long riskCount,
+        Long timelineCount) {
+}
@@ -0,0 +1,15 @@
+package com.brdify.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the BRD list. Read straight from brd_document; no sections,
+ * summary or source text.
+ */
+public record BrdListItem(Long id,
+        String title,
+        String status,
+        String sourceType,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
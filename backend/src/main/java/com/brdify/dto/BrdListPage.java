@@ -0,0 +1,10 @@
+package com.brdify.dto;
+
+import java.util.List;
+
+/**
+ * A page of the BRD list. Pass {@code nextCursor} back as {@code cursor} for
+ * the next page; it is null on the last page.
+ */
+public record BrdListPage(List<BrdListItem> items, String nextCursor) {
+}
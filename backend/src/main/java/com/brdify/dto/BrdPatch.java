@@ -0,0 +1,36 @@
+package com.brdify.dto;
+
+import com.brdify.domain.*;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Changes to apply to a BRD. Only what is present is touched: null header
+ * fields are left as they are, {@code upsert} items with an id update that
+ * item's non-null fields in place, items without an id are added, and ids
+ * in {@code delete} are removed along with their RTM links.
+ */
+@Data
+public class BrdPatch {
+
+    // Version the client last read; required, and the patch is rejected if the BRD has changed since
+    private Long version;
+
+    private String title;
+    private String summary;
+    private String status;
+
+    private ItemChanges<Requirement> requirements = new ItemChanges<>();
+    private ItemChanges<Decision> decisions = new ItemChanges<>();
+    private ItemChanges<Stakeholder> stakeholders = new ItemChanges<>();
+    private ItemChanges<Risk> risks = new ItemChanges<>();
+    private ItemChanges<Timeline> timelines = new ItemChanges<>();
+
+    @Data
+    public static class ItemChanges<T> {
+        private List<T> upsert = new ArrayList<>();
+        private List<Long> delete = new ArrayList<>();
+    }
+}
@@ -0,0 +1,19 @@
+package com.brdify.dto;
+
+import com.brdify.service.ExportService;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Which BRDs to export and in which formats. Either {@code ids}, or the
+ * same status and source type filters as the BRD list; with neither, every
+ * BRD is selected (up to the configured limit).
+ */
+@Data
+public class BulkExportRequest {
+    private List<Long> ids;
+    private String status;
+    private String sourceType;
+    private List<ExportService.Format> formats = List.of(ExportService.Format.PDF);
+}
@@ -0,0 +1,18 @@
+package com.brdify.dto;
+
+/**
+ * One row of the requirements traceability matrix, flattened: the
+ * requirement and what it links to, each as id plus display text, and the
+ * start of the source passage it was extracted from.
+ */
+public record RtmRow(Long id,
+        Long requirementId,
+        String requirement,
+        String sourceExcerpt,
+        Long decisionId,
+        String decision,
+        Long riskId,
+        String risk,
+        Long timelineId,
+        String milestone) {
+}
@@ -0,0 +1,8 @@
+package com.brdify.dto;
+
+/**
+ * One search match: a requirement, decision, risk or BRD title, with the
+ * BRD it belongs to. {@code itemId} is the BRD's own id for title matches.
+ */
+public record SearchHit(Long brdId, String brdTitle, String type, Long itemId, String text, float score) {
+}
@@ -0,0 +1,11 @@
+package com.brdify.dto;
+
+import java.util.List;
+
+/**
+ * A page of search hits, best match first. Past a thousand matches the
+ * total is counted lazily, and {@code totalHitsExact} is false when it is
+ * only a lower bound.
+ */
+public record SearchPage(List<SearchHit> hits, int page, int size, long totalHits, boolean totalHitsExact) {
+}
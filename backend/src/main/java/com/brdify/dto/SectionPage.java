@@ -0,0 +1,16 @@
+package com.brdify.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One page of a BRD section, in document order.
+ */
+public record SectionPage<T>(List<T> items, int page, int size, long totalItems, int totalPages) {
+
+    public static <T> SectionPage<T> of(Page<T> page) {
+        return new SectionPage<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(),
+                page.getTotalPages());
+    }
+}
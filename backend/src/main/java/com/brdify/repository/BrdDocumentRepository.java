@@ -1,9 +1,32 @@
 package com.brdify.repository;
 
 import com.brdify.domain.BrdDocument;
+import com.brdify.dto.BrdHeader;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Repository
-public interface BrdDocumentRepository extends JpaRepository<BrdDocument, Long> {
+public interface BrdDocumentRepository extends JpaRepository<BrdDocument, Long>, BrdDocumentRepositoryCustom {
+
+    // Counts come from the brd_document_id foreign key indexes; no child rows are read
+    @Query("""
+            select new com.brdify.dto.BrdHeader(b.id, b.title, b.status, b.summary, s.sourceType,
+                b.createdAt, b.updatedAt, b.version,
+                (select count(r) from Requirement r where r.brdDocument = b),
+                (select count(d) from Decision d where d.brdDocument = b),
+                (select count(sh) from Stakeholder sh where sh.brdDocument = b),
+                (select count(k) from Risk k where k.brdDocument = b),
+                (select count(t) from Timeline t where t.brdDocument = b))
+            from BrdDocument b left join b.sourceData s
+            where b.id = :id
+            """)
+    Optional<BrdHeader> findHeaderById(@Param("id") Long id);
+
+    @Query("select b.updatedAt from BrdDocument b where b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package com.brdify.repository;
+
+import com.brdify.dto.BrdListItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BrdDocumentRepositoryCustom {
+
+    /**
+     * BRDs newest first, starting strictly after ({@code afterCreatedAt},
+     * {@code afterId}) when those are given. Null filters match everything.
+     */
+    List<BrdListItem> findListPage(String status, String sourceType, LocalDateTime afterCreatedAt, Long afterId,
+            int limit);
+}
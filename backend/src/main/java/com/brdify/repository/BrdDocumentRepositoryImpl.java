@@ -0,0 +1,48 @@
+package com.brdify.repository;
+
+import com.brdify.dto.BrdListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BrdDocumentRepositoryImpl implements BrdDocumentRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BrdListItem> findListPage(String status, String sourceType, LocalDateTime afterCreatedAt,
+            Long afterId, int limit) {
+        // Only the predicates in use are added, so MySQL can seek on the matching
+        // (filter, created_at, id) index instead of evaluating "param is null" per row
+        StringBuilder jpql = new StringBuilder("""
+                select new com.brdify.dto.BrdListItem(b.id, b.title, b.status, b.sourceType, b.createdAt, b.updatedAt)
+                from BrdDocument b where 1 = 1""");
+        if (status != null) {
+            jpql.append(" and b.status = :status");
+        }
+        if (sourceType != null) {
+            jpql.append(" and b.sourceType = :sourceType");
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id))");
+        }
+        jpql.append(" order by b.createdAt desc, b.id desc");
+
+        TypedQuery<BrdListItem> query = entityManager.createQuery(jpql.toString(), BrdListItem.class);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (sourceType != null) {
+            query.setParameter("sourceType", sourceType);
+        }
+        if (afterCreatedAt != null) {
+            query.setParameter("createdAt", afterCreatedAt);
+            query.setParameter("id", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
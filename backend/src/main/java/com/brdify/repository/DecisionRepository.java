@@ -0,0 +1,12 @@
+package com.brdify.repository;
+
+import com.brdify.domain.Decision;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DecisionRepository extends JpaRepository<Decision, Long> {
+    Page<Decision> findByBrdDocumentId(Long brdDocumentId, Pageable pageable);
+}
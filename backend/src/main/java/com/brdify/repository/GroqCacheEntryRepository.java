@@ -0,0 +1,9 @@
+package com.brdify.repository;
+
+import com.brdify.domain.GroqCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GroqCacheEntryRepository extends JpaRepository<GroqCacheEntry, String> {
+}
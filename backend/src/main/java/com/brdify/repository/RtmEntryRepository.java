@@ -1,12 +1,59 @@
 package com.brdify.repository;
 
 import com.brdify.domain.RtmEntry;
+import com.brdify.dto.RtmRow;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.stream.Stream;
 
 @Repository
 public interface RtmEntryRepository extends JpaRepository<RtmEntry, Long> {
-    List<RtmEntry> findByBrdDocumentId(Long brdDocumentId);
+
+    // One query with outer joins instead of four eager lookups per entry; only the
+    // start of the source chunk leaves the database
+    String ROWS_QUERY = """
+            select new com.brdify.dto.RtmRow(e.id, r.id, r.description, substring(e.sourceChunk, 1, 200),
+                d.id, d.description, k.id, k.description, t.id, t.milestone)
+            from RtmEntry e
+                left join e.requirement r
+                left join e.decision d
+                left join e.risk k
+                left join e.timeline t
+            where e.brdDocument.id = :brdId
+            order by e.id""";
+
+    @Query(value = ROWS_QUERY,
+            countQuery = "select count(e) from RtmEntry e where e.brdDocument.id = :brdId")
+    Page<RtmRow> findRowsByBrdDocumentId(@Param("brdId") Long brdDocumentId, Pageable pageable);
+
+    // MySQL Connector/J streams row by row with this fetch size; must be consumed inside a transaction
+    @Query(ROWS_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    Stream<RtmRow> streamRowsByBrdDocumentId(@Param("brdId") Long brdDocumentId);
+
+    @Modifying
+    @Query("delete from RtmEntry r where r.requirement.id in :ids")
+    int deleteByRequirementIds(@Param("ids") Collection<Long> requirementIds);
+
+    @Modifying
+    @Query("update RtmEntry r set r.decision = null where r.decision.id in :ids")
+    int unlinkDecisions(@Param("ids") Collection<Long> decisionIds);
+
+    @Modifying
+    @Query("update RtmEntry r set r.risk = null where r.risk.id in :ids")
+    int unlinkRisks(@Param("ids") Collection<Long> riskIds);
+
+    @Modifying
+    @Query("update RtmEntry r set r.timeline = null where r.timeline.id in :ids")
+    int unlinkTimelines(@Param("ids") Collection<Long> timelineIds);
 }
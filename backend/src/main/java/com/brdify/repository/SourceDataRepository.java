@@ -5,5 +5,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface SourceDataRepository extends JpaRepository<SourceData, Long> {
+public interface SourceDataRepository extends JpaRepository<SourceData, Long>, SourceDataRepositoryCustom {
 }
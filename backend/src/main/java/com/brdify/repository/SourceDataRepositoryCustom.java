@@ -0,0 +1,14 @@
+package com.brdify.repository;
+
+import java.io.Reader;
+
+public interface SourceDataRepositoryCustom {
+
+    /**
+     * Streams raw upload text into {@link com.brdify.domain.SourceDataPart}
+     * rows of bounded size, so only one part is in memory at a time however
+     * large the upload. Must run inside the transaction that inserted the
+     * source row.
+     */
+    void writeContent(Long sourceDataId, Reader content);
+}
@@ -0,0 +1,57 @@
+package com.brdify.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+@RequiredArgsConstructor
+public class SourceDataRepositoryImpl implements SourceDataRepositoryCustom {
+
+    // At most 1 MB of utf8mb4 per part, far below max_allowed_packet
+    static final int PART_CHARS = 256 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void writeContent(Long sourceDataId, Reader content) {
+        char[] buffer = new char[PART_CHARS];
+        int partIndex = 0;
+        int carried = 0;
+        try {
+            while (true) {
+                int filled = fill(content, buffer, carried);
+                if (filled == 0) {
+                    return;
+                }
+                // Keep a surrogate pair in one part; half of one would be stored as '?'
+                int length = filled == buffer.length && Character.isHighSurrogate(buffer[filled - 1])
+                        ? filled - 1 : filled;
+                jdbcTemplate.update(
+                        "INSERT INTO source_data_part (source_data_id, part_index, content) VALUES (?, ?, ?)",
+                        sourceDataId, partIndex++, new String(buffer, 0, length));
+                carried = filled - length;
+                if (carried > 0) {
+                    buffer[0] = buffer[filled - 1];
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read source content", e);
+        }
+    }
+
+    // Reads until the buffer is full or the text ends; returns the number of chars in the buffer
+    private static int fill(Reader content, char[] buffer, int offset) throws IOException {
+        int filled = offset;
+        while (filled < buffer.length) {
+            int read = content.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
+}
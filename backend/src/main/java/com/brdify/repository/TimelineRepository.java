@@ -0,0 +1,12 @@
+package com.brdify.repository;
+
+import com.brdify.domain.Timeline;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TimelineRepository extends JpaRepository<Timeline, Long> {
+    Page<Timeline> findByBrdDocumentId(Long brdDocumentId, Pageable pageable);
+}
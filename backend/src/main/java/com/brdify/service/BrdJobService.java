@@ -0,0 +1,181 @@
+package com.brdify.service;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.domain.BrdJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BrdJobService {
+
+    private static final long SSE_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final BrdService brdService;
+    @Qualifier("jobExecutor")
+    private final ThreadPoolTaskExecutor jobExecutor;
+
+    private final Map<String, BrdJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${brdify.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    /**
+     * Queues a BRD generation run for an upload already spooled to disk and
+     * returns immediately. The file is deleted once the job finishes.
+     *
+     * @throws TaskRejectedException if the worker pool and its queue are full
+     */
+    public BrdJob submitFile(Path spooledUpload, String sourceType) {
+        return submit(new FileSystemResource(spooledUpload), sourceType, () -> deleteQuietly(spooledUpload));
+    }
+
+    /**
+     * Queues a BRD generation run for pasted text and returns immediately.
+     *
+     * @throws TaskRejectedException if the worker pool and its queue are full
+     */
+    public BrdJob submitText(String content, String sourceType) {
+        return submit(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)), sourceType, () -> {
+        });
+    }
+
+    private BrdJob submit(Resource source, String sourceType, Runnable cleanup) {
+        purgeExpiredJobs();
+
+        BrdJob job = new BrdJob(UUID.randomUUID().toString());
+        job.setStatus("QUEUED");
+        jobs.put(job.getId(), job);
+
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    run(job, source, sourceType);
+                } finally {
+                    cleanup.run();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            cleanup.run();
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<BrdJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public SseEmitter subscribe(BrdJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), k -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Send the current state straight away so late subscribers don't wait for the next update
+        publish(job);
+        return emitter;
+    }
+
+    private void run(BrdJob job, Resource source, String sourceType) {
+        job.setStatus("RUNNING");
+        touch(job);
+        try {
+            BrdDocument brd = brdService.processSourceData(source, sourceType, new ProcessingListener() {
+                @Override
+                public void onStage(String stage) {
+                    job.setStage(stage);
+                    touch(job);
+                }
+
+                @Override
+                public void onChunkProgress(int chunksDone, int chunksTotal) {
+                    job.advanceChunkProgress(chunksDone, chunksTotal);
+                    touch(job);
+                }
+
+                @Override
+                public void onStageTiming(String stage, Duration elapsed) {
+                    job.getStageMillis().put(stage, elapsed.toMillis());
+                }
+            });
+            job.setBrdId(brd.getId());
+            job.setStatus("COMPLETED");
+        } catch (Exception e) {
+            log.error("BRD job {} failed", job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus("FAILED");
+        }
+        touch(job);
+    }
+
+    private void touch(BrdJob job) {
+        job.setUpdatedAt(LocalDateTime.now());
+        publish(job);
+    }
+
+    private void publish(BrdJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+        boolean finished = isFinished(job);
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(job));
+                if (finished) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+            }
+        }
+        if (finished) {
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private boolean isFinished(BrdJob job) {
+        return "COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus());
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", file, e);
+        }
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> isFinished(job) && job.getUpdatedAt().isBefore(cutoff));
+    }
+}
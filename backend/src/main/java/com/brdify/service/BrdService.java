@@ -1,421 +1,610 @@
 package com.brdify.service;
 
 import com.brdify.domain.*;
+import com.brdify.dto.BrdHeader;
+import com.brdify.dto.BrdListItem;
+import com.brdify.dto.BrdListPage;
+import com.brdify.dto.BrdPatch;
+import com.brdify.dto.SectionPage;
 import com.brdify.repository.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BrdService {
 
+    // Characters of an unparseable Groq reply quoted in the error
+    private static final int JSON_EXCERPT_CHARS = 200;
+
     private final SourceDataRepository sourceDataRepository;
     private final BrdDocumentRepository brdDocumentRepository;
+    private final RequirementRepository requirementRepository;
+    private final DecisionRepository decisionRepository;
+    private final StakeholderRepository stakeholderRepository;
+    private final RiskRepository riskRepository;
+    private final TimelineRepository timelineRepository;
     private final GroqService groqService;
-    private final ObjectMapper objectMapper;
-
-    @Transactional
-    public BrdDocument processSourceData(String content, String sourceType) {
-        // 1. Save Source Data
+    private final PreprocessingService preprocessingService;
+    private final ChunkingService chunkingService;
+    private final SummaryService summaryService;
+    private final RtmService rtmService;
+    private final SearchIndexService searchIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExtractionMapper extractionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Runs the pipeline in three stages so no database connection is held
+     * while Groq calls are in flight: the source is saved in a short
+     * transaction, extraction runs with no transaction open, and the BRD
+     * graph is written in a second short transaction.
+     * <p>
+     * The source is streamed: it is cleaned line by line and each chunk is
+     * sent for extraction as soon as it is complete, so Groq calls overlap
+     * with reading and the full text is never held in memory. The executive
+     * summary is reduced from extraction results as they arrive, so only its
+     * last rounds run after the final chunk comes back. The first failure
+     * anywhere cancels all outstanding work.
+     */
+    public BrdDocument processSourceData(Resource source, String sourceType, ProcessingListener listener) {
+        StageTimings timings = new StageTimings(meterRegistry, listener);
+        listener.onStage("PREPROCESSING");
+
+        // 1. Save Source Data, streaming the raw text into bounded part rows
         SourceData sourceData = new SourceData();
-        sourceData.setContent(content);
         sourceData.setSourceType(sourceType);
-        sourceDataRepository.save(sourceData);
-
-        // 2. Preprocess
-        String cleanedContent = new PreprocessingService().cleanText(content); // Using new instance if not autowired,
-                                                                               // or better autowire it.
-        // NOTE: I should validly autowire these services in the class first.
-
-        // 3. Chunking
-        List<String> chunks = new ChunkingService().splitIntoChunks(cleanedContent); // Same here, will fix
-                                                                                     // imports/autowire in next step or
-                                                                                     // use simple instantiation if
-                                                                                     // stateless.
+        long stageStart = System.nanoTime();
+        inTransaction("persist-source", () -> {
+            sourceDataRepository.save(sourceData);
+            try (Reader raw = openReader(source)) {
+                sourceDataRepository.writeContent(sourceData.getId(), raw);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read uploaded source", e);
+            }
+            return sourceData;
+        });
+        timings.record("persist-source", stageStart);
 
-        // 4. Create BRD Document
+        // Created up front so extraction results can be mapped onto it as each chunk completes
         BrdDocument brdDocument = new BrdDocument();
         brdDocument.setTitle("BRD from " + sourceType);
         brdDocument.setStatus("DRAFT");
         brdDocument.setSourceData(sourceData);
-
-        // Generate Executive Summary
-        String executiveSummary = groqService.generateExecutiveSummary(cleanedContent);
+        brdDocument.setSourceType(sourceType);
+
+        // 2-3. Clean and chunk incrementally; extraction of each chunk starts as soon as it is complete
+        listener.onStage("EXTRACTING");
+        List<CompletableFuture<ExtractionMapper.ChunkExtraction>> extractions = new ArrayList<>();
+        // The Groq calls themselves; cancelling these (not their dependents) stops queued calls from starting.
+        // Written by this thread, cancelled from worker threads on the first failure
+        List<CompletableFuture<ExtractionMapper.ChunkExtraction>> groqCalls = new CopyOnWriteArrayList<>();
+        // First extraction failure; once set no further chunk is sent and reading stops
+        AtomicReference<Throwable> extractionFailure = new AtomicReference<>();
+        AtomicInteger chunksSubmitted = new AtomicInteger();
+        AtomicInteger chunksDone = new AtomicInteger();
+        long extractionStart = System.nanoTime();
+        AtomicLong extractionEnd = new AtomicLong(extractionStart);
+
+        ChunkingService.ChunkStream chunkStream = chunkingService.openStream(groqService.extractionChunkTokenBudget(),
+                chunk -> {
+                    if (extractionFailure.get() != null) {
+                        // Unwinds the read loop below, which cancels whatever is still queued
+                        throw new CancellationException("Extraction already failed");
+                    }
+                    int chunkIdx = extractions.size();
+                    // Counted before the call exists, so a cached reply completing at once can't make done > total
+                    int chunksTotal = chunksSubmitted.incrementAndGet();
+                    // Holds no thread while queued or in flight; only the mapping runs on the extraction pool,
+                    // and a reply is cached only if it maps
+                    CompletableFuture<ExtractionMapper.ChunkExtraction> call = groqService.extractRequirements(chunk,
+                            json -> mapExtraction(json, chunk, chunkIdx, brdDocument));
+                    groqCalls.add(call);
+                    extractions.add(call
+                            .whenComplete((extraction, error) -> {
+                                // Finished; nothing left to cancel
+                                groqCalls.remove(call);
+                                if (error == null) {
+                                    extractionEnd.accumulateAndGet(System.nanoTime(), Math::max);
+                                    listener.onChunkProgress(chunksDone.incrementAndGet(), chunksSubmitted.get());
+                                } else {
+                                    // Don't keep burning API calls for an upload that is already failing
+                                    extractionFailure.compareAndSet(null, error);
+                                    cancelAll(groqCalls);
+                                }
+                            }));
+                    listener.onChunkProgress(chunksDone.get(), chunksTotal);
+                });
+
+        ChunkingService.ChunkReport chunkReport;
+        stageStart = System.nanoTime();
+        try (Reader raw = openReader(source)) {
+            preprocessingService.cleanSegments(raw, chunkStream::append);
+            chunkReport = chunkStream.finish();
+        } catch (IOException e) {
+            cancelAll(groqCalls);
+            throw new UncheckedIOException("Failed to read uploaded source", e);
+        } catch (RuntimeException e) {
+            cancelAll(groqCalls);
+            Throwable failure = extractionFailure.get();
+            if (failure != null) {
+                // Report the extraction that failed, not the read it interrupted
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                throw new RuntimeException("Extraction failed: " + cause.getMessage(), cause);
+            }
+            throw e;
+        }
+        timings.record("read-and-chunk", stageStart);
+        log.info("Chunked {} source: {}", sourceType, chunkReport.summary());
+        chunkReport.chunkTokens()
+                .forEach(tokens -> meterRegistry.summary("brdify.chunking.chunk.tokens").record(tokens));
+
+        // 4. Executive summary, reduced from extraction results while the remaining chunks are in flight
+        listener.onStage("SUMMARIZING");
+        stageStart = System.nanoTime();
+        String executiveSummary;
+        try {
+            executiveSummary = summaryService.summarize(extractions);
+        } catch (RuntimeException e) {
+            cancelAll(groqCalls);
+            throw e;
+        }
         brdDocument.setSummary(executiveSummary);
-
+        // The summary has consumed every extraction result, so extractionEnd is final here
+        long summaryEnd = System.nanoTime();
+        timings.record("extraction", extractionStart, extractionEnd.get());
+        timings.record("summary", stageStart, summaryEnd);
+        // Time the summary added after the last extraction finished: its share of the critical path
+        timings.record("summary-after-extraction", extractionEnd.get(), summaryEnd);
+
+        // 5. Collect extraction results in chunk order so the RTM index mapping below stays deterministic
         List<Requirement> requirements = new ArrayList<>();
         List<Decision> decisions = new ArrayList<>();
         List<Stakeholder> stakeholders = new ArrayList<>();
         List<Risk> risks = new ArrayList<>();
         List<Timeline> timelines = new ArrayList<>();
-        List<RtmEntry> rtmEntries = new ArrayList<>();
-
-        // Cache structures for deferred RTM mapping post-JPA save
-        List<JsonNode> chunkRoots = new ArrayList<>();
-        java.util.Map<JsonNode, List<Requirement>> chunkRootReqs = new java.util.HashMap<>();
-        java.util.Map<JsonNode, List<Decision>> chunkRootDecs = new java.util.HashMap<>();
-        java.util.Map<JsonNode, List<Risk>> chunkRootRisks = new java.util.HashMap<>();
-        java.util.Map<JsonNode, List<Timeline>> chunkRootTimes = new java.util.HashMap<>();
-        java.util.Map<JsonNode, String> chunkRootTexts = new java.util.HashMap<>();
-        java.util.Map<JsonNode, java.util.Map<Requirement, String>> rootReqQuotes = new java.util.IdentityHashMap<>();
-        java.util.Map<JsonNode, java.util.Map<Requirement, Integer>> rootReqToDec = new java.util.IdentityHashMap<>();
-        java.util.Map<JsonNode, java.util.Map<Requirement, Integer>> rootReqToRisk = new java.util.IdentityHashMap<>();
-        java.util.Map<JsonNode, java.util.Map<Requirement, Integer>> rootReqToTime = new java.util.IdentityHashMap<>();
-
-        // 5. Process each chunk
-        for (String chunk : chunks) {
-            String extractionJson = groqService.extractRequirements(chunk);
-            try {
-                // Extract only the JSON object, ignoring conversational text before/after
-                String sanitizeJson = extractionJson;
-                int startIdx = sanitizeJson.indexOf('{');
-                int endIdx = sanitizeJson.lastIndexOf('}');
-                if (startIdx != -1 && endIdx != -1 && endIdx >= startIdx) {
-                    sanitizeJson = sanitizeJson.substring(startIdx, endIdx + 1);
-                }
-
-                JsonNode root = objectMapper.readTree(sanitizeJson);
-
-                List<Requirement> chunkReqs = new ArrayList<>();
-                java.util.Map<Requirement, String> reqQuotes = new java.util.IdentityHashMap<>();
-                java.util.Map<Requirement, Integer> reqToDec = new java.util.IdentityHashMap<>();
-                java.util.Map<Requirement, Integer> reqToRisk = new java.util.IdentityHashMap<>();
-                java.util.Map<Requirement, Integer> reqToTime = new java.util.IdentityHashMap<>();
-
-                List<Decision> chunkDecs = new ArrayList<>();
-                List<Risk> chunkRisks = new ArrayList<>();
-                List<Timeline> chunkTimes = new ArrayList<>();
-
-                chunkRoots.add(root);
-                chunkRootReqs.put(root, chunkReqs);
-                chunkRootDecs.put(root, chunkDecs);
-                chunkRootRisks.put(root, chunkRisks);
-                chunkRootTimes.put(root, chunkTimes);
-                rootReqQuotes.put(root, reqQuotes);
-                rootReqToDec.put(root, reqToDec);
-                rootReqToRisk.put(root, reqToRisk);
-                rootReqToTime.put(root, reqToTime);
-                chunkRootTexts.put(root, chunk);
-
-                // Requirements
-                if (root.has("requirements")) {
-                    root.get("requirements").forEach(node -> {
-                        Requirement req = new Requirement();
-                        String quote = chunk; // Default to whole chunk if quote missing
-                        if (node.isObject()) {
-                            req.setDescription(node.has("description") ? node.get("description").asText() : "");
-                            if (node.has("sourceQuote")) {
-                                quote = node.get("sourceQuote").asText();
-                            }
-                            if (node.has("relatedDecisionIndex") && !node.get("relatedDecisionIndex").isNull()) {
-                                reqToDec.put(req, node.get("relatedDecisionIndex").asInt());
-                            }
-                            if (node.has("relatedRiskIndex") && !node.get("relatedRiskIndex").isNull()) {
-                                reqToRisk.put(req, node.get("relatedRiskIndex").asInt());
-                            }
-                            if (node.has("relatedTimelineIndex") && !node.get("relatedTimelineIndex").isNull()) {
-                                reqToTime.put(req, node.get("relatedTimelineIndex").asInt());
-                            }
-                        } else {
-                            req.setDescription(node.asText());
-                        }
-                        req.setSourceQuote(quote);
-                        req.setType("FUNCTIONAL");
-                        req.setPriority("MEDIUM");
-                        req.setBrdDocument(brdDocument);
-                        requirements.add(req);
-                        chunkReqs.add(req);
-                        reqQuotes.put(req, quote);
-                    });
-                }
-
-                // Decisions
-                if (root.has("decisions")) {
-                    root.get("decisions").forEach(node -> {
-                        Decision dec = new Decision();
-                        if (node.isObject() && node.has("description")) {
-                            dec.setDescription(node.get("description").asText());
-                        } else {
-                            dec.setDescription(node.asText());
-                        }
-                        dec.setStatus("PENDING");
-                        dec.setBrdDocument(brdDocument);
-                        decisions.add(dec);
-                        chunkDecs.add(dec);
-                    });
-                }
-
-                // Stakeholders
-                if (root.has("stakeholders")) {
-                    root.get("stakeholders").forEach(node -> {
-                        Stakeholder sh = new Stakeholder();
-                        String raw = node.asText();
-                        String[] parts = raw.split(":");
-                        sh.setName(parts[0].trim());
-                        if (parts.length > 1) {
-                            sh.setRole(parts[1].trim());
-                        }
-                        sh.setBrdDocument(brdDocument);
-                        stakeholders.add(sh);
-                    });
-                }
 
-                // Risks
-                if (root.has("risks")) {
-                    root.get("risks").forEach(node -> {
-                        Risk risk = new Risk();
-                        if (node.isObject()) {
-                            risk.setDescription(node.has("description") ? node.get("description").asText() : "");
-                            risk.setProbability(node.has("probability") ? node.get("probability").asText() : "MEDIUM");
-                            risk.setImpact(node.has("impact") ? node.get("impact").asText() : "MEDIUM");
-                            risk.setMitigation(node.has("mitigation") ? node.get("mitigation").asText() : "");
-                        } else {
-                            // Fallback if LLM returns string
-                            risk.setDescription(node.asText());
-                        }
-                        risk.setBrdDocument(brdDocument);
-                        risks.add(risk);
-                        chunkRisks.add(risk);
-                    });
-                }
-
-                // Timeline
-                if (root.has("timeline")) {
-                    root.get("timeline").forEach(node -> {
-                        Timeline timeline = new Timeline();
-                        if (node.isObject()) {
-                            timeline.setMilestone(node.has("milestone") ? node.get("milestone").asText() : "");
-                            timeline.setExpectedDate(node.has("expectedDate") ? node.get("expectedDate").asText() : "");
-                            timeline.setDescription(node.has("description") ? node.get("description").asText() : "");
-                        } else {
-                            timeline.setMilestone(node.asText());
-                        }
-                        timeline.setBrdDocument(brdDocument);
-                        timelines.add(timeline);
-                        chunkTimes.add(timeline);
-                    });
-                }
-
-                // Mappings deferred until after JPA saves entities so ForeignKeys populate ids
-
-            } catch (Exception e) {
-                try {
-                    java.io.StringWriter sw = new java.io.StringWriter();
-                    e.printStackTrace(new java.io.PrintWriter(sw));
-                    java.nio.file.Files.writeString(java.nio.file.Path.of("error_dump.txt"),
-                            "Error: " + e.getMessage() + "\n" + sw.toString());
-                } catch (Exception ignored) {
-                }
-
-                System.err.println("Failed to parse Groq extraction JSON. Chunk skipped.");
-                System.err.println(e.getMessage());
-                e.printStackTrace();
-                throw new RuntimeException("Parser failed on JSON: " + extractionJson + " | Error: " + e.getMessage(),
-                        e);
-            }
+        // Per-chunk results kept for RTM mapping once the lists are assembled
+        List<ExtractionMapper.ChunkExtraction> chunkExtractions = new ArrayList<>();
+        for (int chunkIdx = 0; chunkIdx < extractions.size(); chunkIdx++) {
+            // Already complete: the summary consumed every result
+            ExtractionMapper.ChunkExtraction extraction = awaitExtraction(extractions, chunkIdx);
+            chunkExtractions.add(extraction);
+            requirements.addAll(extraction.requirements());
+            decisions.addAll(extraction.decisions());
+            stakeholders.addAll(extraction.stakeholders());
+            risks.addAll(extraction.risks());
+            timelines.addAll(extraction.timelines());
         }
 
+        listener.onStage("PERSISTING");
         brdDocument.setRequirements(requirements);
         brdDocument.setDecisions(decisions);
         brdDocument.setStakeholders(stakeholders);
         brdDocument.setRisks(risks);
         brdDocument.setTimelines(timelines);
+        // Links resolve by position, so the entries can be built before anything has an id
+        brdDocument.setRtmEntries(rtmService.buildEntries(brdDocument, sourceData, chunkExtractions));
+
+        stageStart = System.nanoTime();
+        // A new BRD (null version) is persisted, not merged, so the graph is not copied first;
+        // the persist cascades to every section and rows are flushed in batches per table at commit
+        BrdDocument saved = inTransaction("persist-brd", () -> brdDocumentRepository.save(brdDocument));
+        timings.record("persist-brd", stageStart);
+        searchIndexService.index(saved);
+        timings.record("total", timings.startNanos());
+        log.info("BRD {} pipeline timings: {}", saved.getId(), timings.summary());
+        return saved;
+    }
 
-        // Save BrdDocument first so children get their IDs
-        BrdDocument savedDoc = brdDocumentRepository.save(brdDocument);
-
-        // Now map the explicit indices to the saved list elements which have real IDs
-        List<RtmEntry> savedRtmEntries = new ArrayList<>();
-        int chunkReqIndexStart = 0;
-
-        for (JsonNode root : chunkRoots) {
-            List<Requirement> chunkReqs = chunkRootReqs.get(root);
-            List<Decision> chunkDecs = chunkRootDecs.get(root);
-            List<Risk> chunkRisks = chunkRootRisks.get(root);
-            List<Timeline> chunkTimes = chunkRootTimes.get(root);
-            String chunkQuoteText = chunkRootTexts.get(root);
-            java.util.Map<Requirement, String> reqQuotes = rootReqQuotes.get(root);
-            java.util.Map<Requirement, Integer> reqToDec = rootReqToDec.get(root);
-            java.util.Map<Requirement, Integer> reqToRisk = rootReqToRisk.get(root);
-            java.util.Map<Requirement, Integer> reqToTime = rootReqToTime.get(root);
-
-            for (int i = 0; i < chunkReqs.size(); i++) {
-                Requirement originalReq = chunkReqs.get(i);
-                // Locate the real saved requirement object
-                Requirement savedReq = savedDoc.getRequirements().get(chunkReqIndexStart + i);
-
-                RtmEntry rtm = new RtmEntry();
-                rtm.setBrdDocument(savedDoc);
-                rtm.setRequirement(savedReq);
-                rtm.setSourceData(sourceData);
-                rtm.setSourceChunk(reqQuotes.getOrDefault(originalReq, chunkQuoteText));
-
-                Integer relDecIdx = reqToDec.get(originalReq);
-                if (relDecIdx != null && relDecIdx >= 0 && relDecIdx < chunkDecs.size()) {
-                    // find index in the saved document matching this chunk's subset
-                    int globalDecIdx = savedDoc.getDecisions().indexOf(chunkDecs.get(relDecIdx));
-                    if (globalDecIdx != -1)
-                        rtm.setDecision(savedDoc.getDecisions().get(globalDecIdx));
-                }
+    private ExtractionMapper.ChunkExtraction mapExtraction(String extractionJson, String chunk, int chunkIdx,
+            BrdDocument brdDocument) {
+        try {
+            return extractionMapper.map(extractionJson, chunk, brdDocument);
+        } catch (Exception e) {
+            log.error("Failed to parse Groq extraction JSON for chunk {}", chunkIdx, e);
+            // The message ends up in logs and the job's error, so only the start of the reply goes in it
+            String excerpt = extractionJson.length() > JSON_EXCERPT_CHARS
+                    ? extractionJson.substring(0, JSON_EXCERPT_CHARS) + "..." : extractionJson;
+            throw new RuntimeException("Parser failed on JSON: " + excerpt + " | Error: " + e.getMessage(), e);
+        }
+    }
 
-                Integer relRiskIdx = reqToRisk.get(originalReq);
-                if (relRiskIdx != null && relRiskIdx >= 0 && relRiskIdx < chunkRisks.size()) {
-                    int globalRiskIdx = savedDoc.getRisks().indexOf(chunkRisks.get(relRiskIdx));
-                    if (globalRiskIdx != -1)
-                        rtm.setRisk(savedDoc.getRisks().get(globalRiskIdx));
-                }
+    private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+        // Queued tasks whose future is cancelled never start, so no further Groq calls are made
+        futures.forEach(f -> f.cancel(false));
+    }
 
-                Integer relTimeIdx = reqToTime.get(originalReq);
-                if (relTimeIdx != null && relTimeIdx >= 0 && relTimeIdx < chunkTimes.size()) {
-                    int globalTimeIdx = savedDoc.getTimelines().indexOf(chunkTimes.get(relTimeIdx));
-                    if (globalTimeIdx != -1)
-                        rtm.setTimeline(savedDoc.getTimelines().get(globalTimeIdx));
-                }
-                savedRtmEntries.add(rtm);
+    private Reader openReader(Resource source) throws IOException {
+        return new BufferedReader(new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private <T> T inTransaction(String stage, Supplier<T> work) {
+        // Records how long each stage keeps a pooled connection checked out
+        return Timer.builder("brdify.pipeline.transaction")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(() -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    private ExtractionMapper.ChunkExtraction awaitExtraction(
+            List<CompletableFuture<ExtractionMapper.ChunkExtraction>> extractions, int chunkIdx) {
+        try {
+            return extractions.get(chunkIdx).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Extraction failed for chunk " + chunkIdx + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * The whole BRD with every section, for exports and the editor. Each
+     * section is read with its own query, which avoids the cartesian product
+     * of joining five collections at once. Lighter reads are
+     * {@link #getHeader} and {@link #getSection}.
+     */
+    @Transactional(readOnly = true)
+    public BrdDocument getBrd(Long id) {
+        BrdDocument brd = brdDocumentRepository.findById(id).orElseThrow();
+        initializeSections(brd);
+        return brd;
+    }
+
+    /**
+     * A page of the BRD list, newest first. Pages are keyset-paginated on
+     * (createdAt, id): the cursor names the last row of the previous page,
+     * so every page is an index seek however deep the client has paged.
+     *
+     * @throws IllegalArgumentException if {@code cursor} is malformed
+     */
+    public BrdListPage listBrds(String status, String sourceType, String cursor, int limit) {
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("_");
+                afterCreatedAt = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
             }
-            chunkReqIndexStart += chunkReqs.size();
         }
 
-        savedDoc.setRtmEntries(savedRtmEntries);
-        return brdDocumentRepository.save(savedDoc);
+        // One extra row tells whether there is a next page
+        List<BrdListItem> rows = brdDocumentRepository.findListPage(status, sourceType, afterCreatedAt, afterId,
+                limit + 1);
+        if (rows.size() <= limit) {
+            return new BrdListPage(rows, null);
+        }
+        List<BrdListItem> page = rows.subList(0, limit);
+        BrdListItem last = page.get(limit - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.createdAt() + "_" + last.id()).getBytes(StandardCharsets.UTF_8));
+        return new BrdListPage(List.copyOf(page), nextCursor);
     }
 
-    public BrdDocument getBrd(Long id) {
-        return brdDocumentRepository.findById(id).orElseThrow();
+    public BrdHeader getHeader(Long id) {
+        return brdDocumentRepository.findHeaderById(id)
+                .orElseThrow(() -> new RuntimeException("BRD not found"));
+    }
+
+    /**
+     * One page of a section, in document order.
+     *
+     * @throws IllegalArgumentException if {@code section} is not a BRD section
+     */
+    public SectionPage<?> getSection(Long id, String section, int page, int size) {
+        if (!brdDocumentRepository.existsById(id)) {
+            throw new RuntimeException("BRD not found");
+        }
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        return switch (section) {
+            case "requirements" -> SectionPage.of(requirementRepository.findByBrdDocumentId(id, pageable));
+            case "decisions" -> SectionPage.of(decisionRepository.findByBrdDocumentId(id, pageable));
+            case "stakeholders" -> SectionPage.of(stakeholderRepository.findByBrdDocumentId(id, pageable));
+            case "risks" -> SectionPage.of(riskRepository.findByBrdDocumentId(id, pageable));
+            case "timelines" -> SectionPage.of(timelineRepository.findByBrdDocumentId(id, pageable));
+            default -> throw new IllegalArgumentException("Unknown BRD section: " + section);
+        };
+    }
+
+    private static void initializeSections(BrdDocument brd) {
+        Hibernate.initialize(brd.getRequirements());
+        Hibernate.initialize(brd.getDecisions());
+        Hibernate.initialize(brd.getStakeholders());
+        Hibernate.initialize(brd.getRisks());
+        Hibernate.initialize(brd.getTimelines());
     }
 
+    /**
+     * Replaces the BRD's content with {@code updatedData}, the way the
+     * editor saves a whole document. The difference is worked out here and
+     * applied through {@link #patchBrd}, so unchanged items are not written,
+     * ids stay stable and RTM links survive. Items not sent are deleted.
+     * {@code updatedData.version} is required, as for {@link #patchBrd}.
+     */
     @Transactional
     public BrdDocument updateBrd(Long id, BrdDocument updatedData) {
         BrdDocument existingBrd = brdDocumentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("BRD not found"));
 
-        if (updatedData.getTitle() != null) {
-            existingBrd.setTitle(updatedData.getTitle());
-        }
-
-        if (updatedData.getSummary() != null) {
-            existingBrd.setSummary(updatedData.getSummary());
-        }
-
-        // Update Requirements
-        existingBrd.getRequirements().clear();
-        if (updatedData.getRequirements() != null) {
-            updatedData.getRequirements().forEach(r -> {
-                r.setId(null);
-                r.setBrdDocument(existingBrd);
-            });
-            existingBrd.getRequirements().addAll(updatedData.getRequirements());
-        }
-
-        // Update Decisions
-        existingBrd.getDecisions().clear();
-        if (updatedData.getDecisions() != null) {
-            updatedData.getDecisions().forEach(d -> {
-                d.setId(null);
-                d.setBrdDocument(existingBrd);
-            });
-            existingBrd.getDecisions().addAll(updatedData.getDecisions());
-        }
-
-        // Update Stakeholders
-        existingBrd.getStakeholders().clear();
-        if (updatedData.getStakeholders() != null) {
-            updatedData.getStakeholders().forEach(s -> {
-                s.setId(null);
-                s.setBrdDocument(existingBrd);
-            });
-            existingBrd.getStakeholders().addAll(updatedData.getStakeholders());
-        }
-
-        // Update Risks
-        existingBrd.getRisks().clear();
-        if (updatedData.getRisks() != null) {
-            updatedData.getRisks().forEach(r -> {
-                r.setId(null);
-                r.setBrdDocument(existingBrd);
-            });
-            existingBrd.getRisks().addAll(updatedData.getRisks());
-        }
-
-        // Update Timelines
-        existingBrd.getTimelines().clear();
-        if (updatedData.getTimelines() != null) {
-            updatedData.getTimelines().forEach(t -> {
-                t.setId(null);
-                t.setBrdDocument(existingBrd);
-            });
-            existingBrd.getTimelines().addAll(updatedData.getTimelines());
-        }
-
-        // Preserve and Remap RTM Entries
-        // Since the UI array orders are preserved in the DOM list,
-        // we map the old AI source chunks onto the newly overwritten requirement DB
-        // objects.
-        if (existingBrd.getRtmEntries() != null && updatedData.getRequirements() != null) {
-            List<RtmEntry> oldRtms = new ArrayList<>(existingBrd.getRtmEntries());
-            existingBrd.getRtmEntries().clear();
-
-            for (int i = 0; i < existingBrd.getRequirements().size(); i++) {
-                if (i < oldRtms.size()) {
-                    RtmEntry oldRtm = oldRtms.get(i);
-                    RtmEntry newRtm = new RtmEntry();
-                    newRtm.setBrdDocument(existingBrd);
-                    newRtm.setRequirement(existingBrd.getRequirements().get(i));
-                    newRtm.setSourceData(oldRtm.getSourceData());
-                    newRtm.setSourceChunk(oldRtm.getSourceChunk());
-
-                    // Remap Risk/Decision/Timeline links based on list indexes if they still exist
-                    // Note: This relies on the UI preserving relative ordering.
-                    if (oldRtm.getDecision() != null && existingBrd.getDecisions() != null) {
-                        int oldIdx = -1;
-                        for (int j = 0; j < oldRtms.size(); j++) {
-                            if (oldRtms.get(j).getDecision() != null
-                                    && oldRtms.get(j).getDecision().getId().equals(oldRtm.getDecision().getId())) {
-                                oldIdx = j;
-                                break;
-                            }
-                        }
-                        if (oldIdx != -1 && oldIdx < existingBrd.getDecisions().size()) {
-                            newRtm.setDecision(existingBrd.getDecisions().get(oldIdx));
-                        }
-                    }
-                    if (oldRtm.getRisk() != null && existingBrd.getRisks() != null) {
-                        int oldIdx = -1;
-                        for (int j = 0; j < oldRtms.size(); j++) {
-                            if (oldRtms.get(j).getRisk() != null
-                                    && oldRtms.get(j).getRisk().getId().equals(oldRtm.getRisk().getId())) {
-                                oldIdx = j;
-                                break;
-                            }
-                        }
-                        if (oldIdx != -1 && oldIdx < existingBrd.getRisks().size()) {
-                            newRtm.setRisk(existingBrd.getRisks().get(oldIdx));
-                        }
-                    }
-                    if (oldRtm.getTimeline() != null && existingBrd.getTimelines() != null) {
-                        int oldIdx = -1;
-                        for (int j = 0; j < oldRtms.size(); j++) {
-                            if (oldRtms.get(j).getTimeline() != null
-                                    && oldRtms.get(j).getTimeline().getId().equals(oldRtm.getTimeline().getId())) {
-                                oldIdx = j;
-                                break;
-                            }
-                        }
-                        if (oldIdx != -1 && oldIdx < existingBrd.getTimelines().size()) {
-                            newRtm.setTimeline(existingBrd.getTimelines().get(oldIdx));
-                        }
-                    }
-                    existingBrd.getRtmEntries().add(newRtm);
+        BrdPatch patch = new BrdPatch();
+        patch.setVersion(updatedData.getVersion());
+        patch.setTitle(updatedData.getTitle());
+        patch.setSummary(updatedData.getSummary());
+        patch.setRequirements(diff(existingBrd.getRequirements(), updatedData.getRequirements(), Requirement::getId,
+                Requirement::setId));
+        patch.setDecisions(diff(existingBrd.getDecisions(), updatedData.getDecisions(), Decision::getId,
+                Decision::setId));
+        patch.setStakeholders(diff(existingBrd.getStakeholders(), updatedData.getStakeholders(), Stakeholder::getId,
+                Stakeholder::setId));
+        patch.setRisks(diff(existingBrd.getRisks(), updatedData.getRisks(), Risk::getId, Risk::setId));
+        patch.setTimelines(diff(existingBrd.getTimelines(), updatedData.getTimelines(), Timeline::getId,
+                Timeline::setId));
+        return applyPatch(existingBrd, patch);
+    }
+
+    /**
+     * Applies only the given changes. Dirty checking writes just the rows
+     * that actually changed; the BRD row itself is always touched so its
+     * version moves on and a concurrent editor holding the old version gets
+     * an {@link ObjectOptimisticLockingFailureException}.
+     *
+     * @throws ObjectOptimisticLockingFailureException if {@code patch.version} is stale
+     * @throws IllegalArgumentException if {@code patch.version} is missing or an item id does not belong to
+     *         this BRD
+     */
+    @Transactional
+    public BrdDocument patchBrd(Long id, BrdPatch patch) {
+        BrdDocument existingBrd = brdDocumentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("BRD not found"));
+        return applyPatch(existingBrd, patch);
+    }
+
+    private BrdDocument applyPatch(BrdDocument brd, BrdPatch patch) {
+        if (patch.getVersion() == null) {
+            // Without it a stale client would silently overwrite newer edits
+            throw new IllegalArgumentException("version is required");
+        }
+        if (!patch.getVersion().equals(brd.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(BrdDocument.class, brd.getId());
+        }
+
+        if (patch.getTitle() != null) {
+            brd.setTitle(patch.getTitle());
+        }
+        if (patch.getSummary() != null) {
+            brd.setSummary(patch.getSummary());
+        }
+        if (patch.getStatus() != null) {
+            brd.setStatus(patch.getStatus());
+        }
+
+        // Validate every id and detach RTM links before any collection changes, so the
+        // bulk RTM statements can't flush an orphan delete ahead of themselves
+        Set<Long> deletedRequirements = idsToDelete(brd.getRequirements(), patch.getRequirements(),
+                Requirement::getId, "Requirement");
+        Set<Long> deletedDecisions = idsToDelete(brd.getDecisions(), patch.getDecisions(), Decision::getId,
+                "Decision");
+        Set<Long> deletedStakeholders = idsToDelete(brd.getStakeholders(), patch.getStakeholders(),
+                Stakeholder::getId, "Stakeholder");
+        Set<Long> deletedRisks = idsToDelete(brd.getRisks(), patch.getRisks(), Risk::getId, "Risk");
+        Set<Long> deletedTimelines = idsToDelete(brd.getTimelines(), patch.getTimelines(), Timeline::getId,
+                "Timeline");
+        rtmService.unlinkDeleted(deletedRequirements, deletedDecisions, deletedRisks, deletedTimelines);
+
+        List<Requirement> addedRequirements = applyItemChanges(brd, brd.getRequirements(), patch.getRequirements(),
+                deletedRequirements, Requirement::getId, this::copyRequirement, r -> r.setBrdDocument(brd),
+                "Requirement");
+        applyItemChanges(brd, brd.getDecisions(), patch.getDecisions(), deletedDecisions, Decision::getId,
+                this::copyDecision, d -> d.setBrdDocument(brd), "Decision");
+        applyItemChanges(brd, brd.getStakeholders(), patch.getStakeholders(), deletedStakeholders,
+                Stakeholder::getId, this::copyStakeholder, s -> s.setBrdDocument(brd), "Stakeholder");
+        applyItemChanges(brd, brd.getRisks(), patch.getRisks(), deletedRisks, Risk::getId, this::copyRisk,
+                r -> r.setBrdDocument(brd), "Risk");
+        applyItemChanges(brd, brd.getTimelines(), patch.getTimelines(), deletedTimelines, Timeline::getId,
+                this::copyTimeline, t -> t.setBrdDocument(brd), "Timeline");
+
+        // Child-only edits don't dirty the BRD row; touch it so the version always advances
+        brd.setUpdatedAt(LocalDateTime.now());
+        BrdDocument saved = brdDocumentRepository.saveAndFlush(brd);
+
+        // New requirements have ids now; give them RTM rows so the matrix covers every requirement
+        rtmService.addEntriesFor(saved, addedRequirements);
+        // The response is the whole BRD; sections the patch didn't touch are still unloaded
+        initializeSections(saved);
+        // Written once the edit commits
+        searchIndexService.index(saved);
+        eventPublisher.publishEvent(new BrdUpdatedEvent(saved.getId()));
+        return saved;
+    }
+
+    // Turns a full replacement list into upserts plus deletes of whatever was left out
+    private <T> BrdPatch.ItemChanges<T> diff(List<T> existing, List<T> updated, Function<T, Long> idOf,
+            BiConsumer<T, Long> setId) {
+        BrdPatch.ItemChanges<T> changes = new BrdPatch.ItemChanges<>();
+        Set<Long> existingIds = new HashSet<>();
+        existing.forEach(item -> existingIds.add(idOf.apply(item)));
+
+        Set<Long> keptIds = new HashSet<>();
+        if (updated != null) {
+            for (T item : updated) {
+                Long itemId = idOf.apply(item);
+                if (itemId != null && existingIds.contains(itemId) && keptIds.add(itemId)) {
+                    changes.getUpsert().add(item);
+                } else {
+                    // Unknown, foreign or repeated ids are saved as new items
+                    setId.accept(item, null);
+                    changes.getUpsert().add(item);
                 }
             }
         }
+        existingIds.removeAll(keptIds);
+        changes.getDelete().addAll(existingIds);
+        return changes;
+    }
+
+    private <T> Set<Long> idsToDelete(List<T> items, BrdPatch.ItemChanges<T> changes, Function<T, Long> idOf,
+            String itemType) {
+        if (isEmpty(changes)) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>();
+        items.forEach(item -> ids.add(idOf.apply(item)));
+        for (T item : changes.getUpsert()) {
+            Long itemId = idOf.apply(item);
+            if (itemId != null && !ids.contains(itemId)) {
+                throw new IllegalArgumentException(itemType + " " + itemId + " does not belong to this BRD");
+            }
+        }
+        Set<Long> deleted = new HashSet<>(changes.getDelete());
+        for (Long itemId : deleted) {
+            if (!ids.contains(itemId)) {
+                throw new IllegalArgumentException(itemType + " " + itemId + " does not belong to this BRD");
+            }
+        }
+        return deleted;
+    }
+
+    // Untouched sections are skipped so their rows are never loaded
+    private static boolean isEmpty(BrdPatch.ItemChanges<?> changes) {
+        return changes == null || (changes.getUpsert().isEmpty() && changes.getDelete().isEmpty());
+    }
+
+    // Returns the items that were added
+    private <T> List<T> applyItemChanges(BrdDocument brd, List<T> items, BrdPatch.ItemChanges<T> changes,
+            Set<Long> deletedIds, Function<T, Long> idOf, BiConsumer<T, T> copyFields, Consumer<T> attach,
+            String itemType) {
+        if (isEmpty(changes)) {
+            return List.of();
+        }
+        if (!deletedIds.isEmpty()) {
+            // orphanRemoval turns these into row deletes
+            items.removeIf(item -> deletedIds.contains(idOf.apply(item)));
+        }
+
+        Map<Long, T> byId = new HashMap<>();
+        items.forEach(item -> byId.put(idOf.apply(item), item));
+        List<T> added = new ArrayList<>();
+        for (T change : changes.getUpsert()) {
+            Long itemId = idOf.apply(change);
+            if (itemId == null) {
+                attach.accept(change);
+                items.add(change);
+                added.add(change);
+            } else if (byId.containsKey(itemId)) {
+                copyFields.accept(change, byId.get(itemId));
+            } else {
+                throw new IllegalArgumentException(itemType + " " + itemId + " is both updated and deleted");
+            }
+        }
+        return added;
+    }
+
+    private void copyRequirement(Requirement from, Requirement to) {
+        if (from.getDescription() != null) {
+            to.setDescription(from.getDescription());
+        }
+        if (from.getSourceQuote() != null) {
+            to.setSourceQuote(from.getSourceQuote());
+        }
+        if (from.getType() != null) {
+            to.setType(from.getType());
+        }
+        if (from.getPriority() != null) {
+            to.setPriority(from.getPriority());
+        }
+        if (from.getHasConflict() != null) {
+            to.setHasConflict(from.getHasConflict());
+        }
+    }
+
+    private void copyDecision(Decision from, Decision to) {
+        if (from.getDescription() != null) {
+            to.setDescription(from.getDescription());
+        }
+        if (from.getStatus() != null) {
+            to.setStatus(from.getStatus());
+        }
+    }
 
-        return brdDocumentRepository.save(existingBrd);
+    private void copyStakeholder(Stakeholder from, Stakeholder to) {
+        if (from.getName() != null) {
+            to.setName(from.getName());
+        }
+        if (from.getRole() != null) {
+            to.setRole(from.getRole());
+        }
+        if (from.getContactInfo() != null) {
+            to.setContactInfo(from.getContactInfo());
+        }
+    }
+
+    private void copyRisk(Risk from, Risk to) {
+        if (from.getDescription() != null) {
+            to.setDescription(from.getDescription());
+        }
+        if (from.getProbability() != null) {
+            to.setProbability(from.getProbability());
+        }
+        if (from.getImpact() != null) {
+            to.setImpact(from.getImpact());
+        }
+        if (from.getMitigation() != null) {
+            to.setMitigation(from.getMitigation());
+        }
+    }
+
+    private void copyTimeline(Timeline from, Timeline to) {
+        if (from.getMilestone() != null) {
+            to.setMilestone(from.getMilestone());
+        }
+        if (from.getExpectedDate() != null) {
+            to.setExpectedDate(from.getExpectedDate());
+        }
+        if (from.getDescription() != null) {
+            to.setDescription(from.getDescription());
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.brdify.service;
+
+/**
+ * Published when a BRD's content has been edited, so anything derived from
+ * it (rendered exports) can be dropped.
+ */
+public record BrdUpdatedEvent(Long brdId) {
+}
@@ -0,0 +1,194 @@
+package com.brdify.service;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.dto.BrdListItem;
+import com.brdify.dto.BulkExportRequest;
+import com.brdify.repository.BrdDocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exports many BRDs as one ZIP. BRDs are loaded and rendered in parallel on
+ * the export executor and each one's files are added to the ZIP as soon as
+ * they are ready, so the archive streams out while later BRDs are still
+ * rendering. At most {@code max-pending} BRDs per export are rendered or
+ * waiting to be written at any time, which bounds the memory one export can
+ * hold to that many rendered BRDs.
+ */
+@Slf4j
+@Service
+public class BulkExportService {
+
+    private final BrdService brdService;
+    private final BrdDocumentRepository brdDocumentRepository;
+    private final DocumentGenerationService documentGenerationService;
+    private final Executor exportExecutor;
+    private final int maxBrds;
+    private final int maxPending;
+
+    public BulkExportService(BrdService brdService, BrdDocumentRepository brdDocumentRepository,
+            DocumentGenerationService documentGenerationService,
+            @Qualifier("exportExecutor") Executor exportExecutor,
+            @Value("${brdify.export.bulk.max-brds:500}") int maxBrds,
+            @Value("${brdify.export.bulk.max-pending:8}") int maxPending) {
+        this.brdService = brdService;
+        this.brdDocumentRepository = brdDocumentRepository;
+        this.documentGenerationService = documentGenerationService;
+        this.exportExecutor = exportExecutor;
+        this.maxBrds = maxBrds;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * The BRD ids the request selects, in list order for filters and in the
+     * given order for ids.
+     *
+     * @throws IllegalArgumentException if it selects more than {@code max-brds} BRDs or no format
+     */
+    public List<Long> resolve(BulkExportRequest request) {
+        if (request.getFormats() == null || request.getFormats().isEmpty()) {
+            throw new IllegalArgumentException("At least one export format is required");
+        }
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = List.copyOf(new LinkedHashSet<>(request.getIds()));
+            if (ids.size() > maxBrds) {
+                throw new IllegalArgumentException("At most " + maxBrds + " BRDs can be exported at once");
+            }
+            return ids;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        List<BrdListItem> batch;
+        do {
+            batch = brdDocumentRepository.findListPage(request.getStatus(), request.getSourceType(), afterCreatedAt,
+                    afterId, 100);
+            for (BrdListItem item : batch) {
+                ids.add(item.id());
+                if (ids.size() > maxBrds) {
+                    throw new IllegalArgumentException(
+                            "The filter matches more than " + maxBrds + " BRDs; narrow it or pass ids");
+                }
+            }
+            if (!batch.isEmpty()) {
+                afterCreatedAt = batch.get(batch.size() - 1).createdAt();
+                afterId = batch.get(batch.size() - 1).id();
+            }
+        } while (!batch.isEmpty());
+        return ids;
+    }
+
+    /**
+     * Writes the ZIP to {@code out}. A BRD that cannot be exported does not
+     * stop the others; it is listed in an {@code errors.txt} entry instead.
+     * If the client goes away, renders that have not started are cancelled.
+     */
+    public void writeZip(List<Long> ids, List<ExportService.Format> formats, OutputStream out) throws IOException {
+        Set<ExportService.Format> formatSet = EnumSet.copyOf(formats);
+        BlockingQueue<Rendered> done = new LinkedBlockingQueue<>();
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        Map<Long, String> errors = new LinkedHashMap<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDF and DOCX are compressed already; spend as little CPU as possible on them
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            int submitted = 0;
+            for (int written = 0; written < ids.size(); written++) {
+                while (submitted < ids.size() && submitted - written < maxPending) {
+                    Long id = ids.get(submitted++);
+                    CompletableFuture<Void> task = CompletableFuture
+                            .runAsync(() -> done.add(render(id, formatSet)), exportExecutor);
+                    // The task itself, not a dependent: cancelling it is what keeps a queued render from starting
+                    running.add(task);
+                    task.exceptionally(e -> {
+                        done.add(Rendered.failed(id, e));
+                        return null;
+                    });
+                }
+
+                Rendered rendered = done.take();
+                if (rendered.error() != null) {
+                    errors.put(rendered.brdId(), rendered.error());
+                    continue;
+                }
+                for (Map.Entry<ExportService.Format, byte[]> file : rendered.files().entrySet()) {
+                    zip.putNextEntry(new ZipEntry("brd-" + rendered.brdId() + "." + file.getKey().extension()));
+                    zip.write(file.getValue());
+                    zip.closeEntry();
+                }
+                // Push finished entries to the client rather than letting them sit in buffers
+                zip.flush();
+            }
+
+            if (!errors.isEmpty()) {
+                StringBuilder report = new StringBuilder();
+                errors.forEach((id, error) -> report.append("BRD ").append(id).append(": ").append(error).append('\n'));
+                zip.putNextEntry(new ZipEntry("errors.txt"));
+                zip.write(report.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Bulk export interrupted", e);
+        } finally {
+            running.forEach(f -> f.cancel(false));
+        }
+        log.info("Bulk export of {} BRDs as {} finished with {} failures", ids.size(), formatSet, errors.size());
+    }
+
+    private Rendered render(Long id, Set<ExportService.Format> formats) {
+        try {
+            BrdDocument brd = brdService.getBrd(id);
+            Map<ExportService.Format, byte[]> files = new LinkedHashMap<>();
+            for (ExportService.Format format : formats) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                if (format == ExportService.Format.PDF) {
+                    documentGenerationService.writePdf(brd, buffer);
+                } else {
+                    documentGenerationService.writeDocx(brd, buffer);
+                }
+                files.put(format, buffer.toByteArray());
+            }
+            return new Rendered(id, files, null);
+        } catch (NoSuchElementException e) {
+            return new Rendered(id, Map.of(), "BRD not found");
+        } catch (Exception e) {
+            log.warn("Bulk export could not render BRD {}", id, e);
+            return Rendered.failed(id, e);
+        }
+    }
+
+    private record Rendered(Long brdId, Map<ExportService.Format, byte[]> files, String error) {
+
+        static Rendered failed(Long brdId, Throwable e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return new Rendered(brdId, Map.of(), message);
+        }
+    }
+}
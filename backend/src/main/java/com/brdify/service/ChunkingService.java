@@ -1,75 +1,199 @@
 package com.brdify.service;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
+@RequiredArgsConstructor
 public class ChunkingService {
 
-    private static final int MAX_CHUNK_SIZE = 12000; // Characters (~3000-4000 tokens)
-    private static final int OVERLAP_SIZE = 500; // Characters to overlap for context continuity
+    private final TokenEstimator tokenEstimator;
 
-    public List<String> splitIntoChunks(String text) {
+    /**
+     * Estimated tokens in each chunk produced and the budget they were packed against.
+     */
+    public record ChunkReport(List<Integer> chunkTokens, int tokenBudget) {
+
+        public int chunkCount() {
+            return chunkTokens.size();
+        }
+
+        public String summary() {
+            int total = chunkTokens.stream().mapToInt(Integer::intValue).sum();
+            int max = chunkTokens.stream().mapToInt(Integer::intValue).max().orElse(0);
+            return String.format("%d chunks, budget %d tokens/chunk, %d tokens total, largest %d (%d%% of budget)",
+                    chunkCount(), tokenBudget, total, max, tokenBudget > 0 ? max * 100 / tokenBudget : 0);
+        }
+    }
+
+    public record ChunkPlan(List<String> chunks, ChunkReport report) {
+    }
+
+    /**
+     * Packs text into chunks of at most {@code tokenBudget} estimated tokens.
+     * Lines are kept whole where possible and a chunk that is at least half
+     * full is cut at its last paragraph break rather than mid-paragraph. Lines
+     * larger than the budget are split on sentence ends, then on whitespace.
+     */
+    public ChunkPlan splitIntoChunks(String text, int tokenBudget) {
+        return plan(text, tokenBudget, true);
+    }
+
+    // With endOfText false, more text may follow: planning stops at the first
+    // unit that text could still change, and the chunk open there is left out
+    private ChunkPlan plan(String text, int tokenBudget, boolean endOfText) {
         List<String> chunks = new ArrayList<>();
+        List<Integer> chunkTokens = new ArrayList<>();
         if (text == null || text.isEmpty()) {
-            return chunks;
+            return new ChunkPlan(chunks, new ChunkReport(chunkTokens, tokenBudget));
+        }
+
+        int chunkStart = 0;
+        int tokens = 0;
+        int paragraphBreak = -1; // Offset just after the last blank line in the current chunk
+        int tokensAtBreak = 0;
+
+        int pos = 0;
+        while (pos < text.length()) {
+            int unitEnd = nextUnitEnd(text, pos, tokenBudget, endOfText);
+            if (unitEnd < 0) {
+                return new ChunkPlan(chunks, new ChunkReport(chunkTokens, tokenBudget));
+            }
+            int unitTokens = tokenEstimator.estimate(text, pos, unitEnd);
+
+            if (tokens > 0 && tokens + unitTokens > tokenBudget) {
+                if (paragraphBreak > chunkStart && tokensAtBreak >= tokenBudget / 2) {
+                    chunks.add(text.substring(chunkStart, paragraphBreak));
+                    chunkTokens.add(tokensAtBreak);
+                    tokens -= tokensAtBreak;
+                    chunkStart = paragraphBreak;
+                }
+                // The tail carried over from a paragraph cut may still leave no room for this unit
+                if (tokens > 0 && tokens + unitTokens > tokenBudget) {
+                    chunks.add(text.substring(chunkStart, pos));
+                    chunkTokens.add(tokens);
+                    tokens = 0;
+                    chunkStart = pos;
+                }
+                paragraphBreak = -1;
+            }
+
+            tokens += unitTokens;
+            boolean blankLine = unitEnd - pos == 1 && text.charAt(pos) == '\n';
+            pos = unitEnd;
+            if (blankLine) {
+                // A paragraph just ended; remember it as the preferred cut point
+                paragraphBreak = pos;
+                tokensAtBreak = tokens;
+            }
+        }
+
+        if (endOfText && chunkStart < text.length()) {
+            chunks.add(text.substring(chunkStart));
+            chunkTokens.add(tokens);
         }
+        return new ChunkPlan(chunks, new ChunkReport(chunkTokens, tokenBudget));
+    }
+
+    /**
+     * Incremental chunker for streamed input. Text is appended in pieces as
+     * it is read, cut anywhere, even mid-line, and each chunk is handed to
+     * {@code onChunk} as soon as the text after it shows it is complete.
+     * Lines longer than the budget are split as in splitIntoChunks, so only
+     * about two chunks of text are ever buffered, however long a line is.
+     * Produces the same chunks as {@link #splitIntoChunks}.
+     */
+    public ChunkStream openStream(int tokenBudget, Consumer<String> onChunk) {
+        return new ChunkStream(tokenBudget, onChunk);
+    }
+
+    public final class ChunkStream {
+        private final int tokenBudget;
+        private final Consumer<String> onChunk;
+        private final List<Integer> chunkTokens = new ArrayList<>();
+        private final StringBuilder buffer = new StringBuilder();
+        // Summed per piece, so a word cut between pieces counts a little high; drain re-estimates
+        private int bufferedTokens;
 
-        if (text.length() <= MAX_CHUNK_SIZE) {
-            chunks.add(text);
-            return chunks;
+        private ChunkStream(int tokenBudget, Consumer<String> onChunk) {
+            this.tokenBudget = tokenBudget;
+            this.onChunk = onChunk;
         }
 
-        int start = 0;
-        while (start < text.length()) {
-            int end = Math.min(start + MAX_CHUNK_SIZE, text.length());
+        public void append(String text) {
+            buffer.append(text);
+            bufferedTokens += tokenEstimator.estimate(text);
 
-            // Try to find a paragraph break or sentence end to split cleanly
-            if (end < text.length()) {
-                int lastNewline = text.lastIndexOf("\n", end);
-                int lastPeriod = text.lastIndexOf(".", end);
+            // Once two budgets are buffered, at least the first chunk is final
+            if (bufferedTokens > 2 * tokenBudget) {
+                drain(false);
+            }
+        }
 
-                if (lastNewline > start + (MAX_CHUNK_SIZE / 2)) {
-                    end = lastNewline + 1; // Include the newline
-                } else if (lastPeriod > start + (MAX_CHUNK_SIZE / 2)) {
-                    end = lastPeriod + 1; // Include the period
-                }
+        public ChunkReport finish() {
+            drain(true);
+            return new ChunkReport(chunkTokens, tokenBudget);
+        }
+
+        private void drain(boolean last) {
+            String text = buffer.toString();
+            ChunkPlan plan = plan(text, tokenBudget, last);
+            List<String> chunks = plan.chunks();
+            int consumed = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                consumed += chunks.get(i).length();
+                chunkTokens.add(plan.report().chunkTokens().get(i));
+                onChunk.accept(chunks.get(i));
             }
+            buffer.delete(0, consumed);
+            // What is left is the open chunk plus at most one budget of an unfinished line
+            bufferedTokens = last ? 0 : tokenEstimator.estimate(text, consumed, text.length());
+        }
+    }
+
+    // End offset of the next packing unit starting at pos: a whole line if it
+    // fits the budget, otherwise as many whole sentences (or words) as fit.
+    // -1 if the line runs on past the end of unfinished text and fits so far,
+    // since the rest of it may not. A line already over budget is cut the
+    // same way wherever it ends, so its units are final.
+    private int nextUnitEnd(String text, int pos, int tokenBudget, boolean endOfText) {
+        int newline = text.indexOf('\n', pos);
+        int lineEnd = newline == -1 ? text.length() : newline + 1;
+        if (tokenEstimator.estimate(text, pos, lineEnd) <= tokenBudget) {
+            return newline == -1 && !endOfText ? -1 : lineEnd;
+        }
 
-            chunks.add(text.substring(start, end));
-
-            // Move start forward, subtracting overlap unless we're at the end
-            start = end - OVERLAP_SIZE;
-
-            // Avoid infinite loops if overlap pushes us back too far or same spot (though
-            // logic above should prevent)
-            if (start >= end)
-                start = end;
-            // Ensure next start is advanced at least by 1 if strict overlap fails
-            if (start <= (end - MAX_CHUNK_SIZE))
-                start = end; // Just a safety, logic implies start < end
-
-            // Correct logic: next chunk starts at 'end' minus overlap, BUT we need to
-            // ensure we don't re-process too much.
-            // Actually, simplest overlapping window:
-            // start = start + (MAX_CHUNK_SIZE - OVERLAP_SIZE) could miss
-
-            // Let's stick to the calculated 'end' minus overlap for the next 'start'
-            // If we split at a clean break (newline), we might not need overlap, but let's
-            // keep it for safety in LLM context.
-            // However, duplicating content might cause duplicate requirements.
-            // For BRD extraction, simple splitting by paragraphs is often better than
-            // strict sliding window.
-
-            // Revised strategy: Strict partition by paragraph without overlap if possible,
-            // or overlap if no massive break.
-            // Let's use the simple calculated 'end' and just set start = end for now to
-            // avoid duplication issues in extraction.
-            // Overlap is good for Q&A, but for Extraction, it causes duplicates.
-            start = end;
+        int fitEnd = largestFittingEnd(text, pos, lineEnd, tokenBudget);
+
+        for (int i = fitEnd - 1; i > pos; i--) {
+            char c = text.charAt(i - 1);
+            if ((c == '.' || c == '!' || c == '?') && Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
         }
+        for (int i = fitEnd - 1; i > pos; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return Math.max(fitEnd, pos + 1);
+    }
 
-        return chunks;
+    private int largestFittingEnd(String text, int pos, int limit, int tokenBudget) {
+        // Estimates grow monotonically with the end offset, so binary search the cut point
+        int lo = pos + 1;
+        int hi = limit;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (tokenEstimator.estimate(text, pos, mid) <= tokenBudget) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
     }
 }
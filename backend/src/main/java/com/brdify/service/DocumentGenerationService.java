@@ -2,6 +2,8 @@ package com.brdify.service;
 
 import com.brdify.domain.BrdDocument;
 import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.ExceptionConverter;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfWriter;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
@@ -11,14 +13,30 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 @Service
 public class DocumentGenerationService {
 
     public byte[] generatePdf(BrdDocument brd) {
         try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writePdf(brd, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating PDF", e);
+        }
+    }
+
+    /**
+     * Renders the BRD as PDF straight into {@code out}, page by page, and
+     * leaves the stream open.
+     */
+    public void writePdf(BrdDocument brd, OutputStream out) throws IOException {
+        try {
             Document document = new Document();
-            PdfWriter.getInstance(document, out);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            // The caller owns the stream (a response or a ZIP entry)
+            writer.setCloseStream(false);
             document.open();
 
             document.add(new Paragraph("PRODUCED BY BRDIFY"));
@@ -67,15 +85,32 @@ public class DocumentGenerationService {
             }
 
             document.close();
-            return out.toByteArray();
-        } catch (Exception e) {
+        } catch (ExceptionConverter e) {
+            // OpenPDF wraps write failures; surface them as the IOException they are
+            if (e.getException() instanceof IOException io) {
+                throw io;
+            }
+            throw new RuntimeException("Error generating PDF", e);
+        } catch (DocumentException e) {
             throw new RuntimeException("Error generating PDF", e);
         }
     }
 
     public byte[] generateDocx(BrdDocument brd) {
-        try (XWPFDocument document = new XWPFDocument();
-                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writeDocx(brd, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating DOCX", e);
+        }
+    }
+
+    /**
+     * Renders the BRD as DOCX into {@code out} and leaves the stream open.
+     * POI builds the document in memory before writing it.
+     */
+    public void writeDocx(BrdDocument brd, OutputStream out) throws IOException {
+        try (XWPFDocument document = new XWPFDocument()) {
 
             XWPFParagraph title = document.createParagraph();
             XWPFRun titleRun = title.createRun();
@@ -116,9 +151,6 @@ public class DocumentGenerationService {
             }
 
             document.write(out);
-            return out.toByteArray();
-        } catch (IOException e) {
-            throw new RuntimeException("Error generating DOCX", e);
         }
     }
 
@@ -0,0 +1,252 @@
+package com.brdify.service;
+
+import com.brdify.domain.BrdDocument;
+import com.brdify.repository.BrdDocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders BRD exports straight to the caller's stream and keeps small
+ * results in a byte-bounded in-memory LRU. Entries are keyed by BRD id,
+ * {@code updatedAt} and format, so an edited BRD can never be served from an
+ * old rendering; edits also drop the BRD's entries straight away so they
+ * stop taking up space. Exports larger than the per-entry limit are never
+ * held in full: they are written through and not cached.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    public enum Format {
+        PDF("pdf", "application/pdf"),
+        DOCX("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * An export ready to be written, and the version of the BRD it renders.
+     * {@code contentLength} is known only when it comes from the cache.
+     */
+    public record Export(Format format, LocalDateTime updatedAt, Long contentLength, Writer writer) {
+
+        public void writeTo(OutputStream out) throws IOException {
+            writer.writeTo(out);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Writer {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        void render(BrdDocument brd, OutputStream out) throws IOException;
+    }
+
+    private record Key(Long brdId, LocalDateTime updatedAt, Format format) {
+    }
+
+    private final BrdService brdService;
+    private final BrdDocumentRepository brdDocumentRepository;
+    private final Map<Format, Renderer> renderers = new EnumMap<>(Format.class);
+    private final LinkedHashMap<Key, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private long cachedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<Format, Timer> renderTimers = new EnumMap<>(Format.class);
+
+    public ExportService(BrdService brdService, BrdDocumentRepository brdDocumentRepository,
+            DocumentGenerationService documentGenerationService, MeterRegistry meterRegistry,
+            @Value("${brdify.export.cache.max-size:64MB}") DataSize maxSize,
+            @Value("${brdify.export.cache.max-entry-size:4MB}") DataSize maxEntrySize) {
+        this.brdService = brdService;
+        this.brdDocumentRepository = brdDocumentRepository;
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = (int) Math.min(maxEntrySize.toBytes(), Math.min(maxBytes, Integer.MAX_VALUE - 8));
+        renderers.put(Format.PDF, documentGenerationService::writePdf);
+        renderers.put(Format.DOCX, documentGenerationService::writeDocx);
+
+        this.hits = meterRegistry.counter("brdify.export.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("brdify.export.cache.requests", "result", "miss");
+        for (Format format : Format.values()) {
+            renderTimers.put(format, meterRegistry.timer("brdify.export.render", "format", format.extension()));
+        }
+        meterRegistry.gauge("brdify.export.cache.bytes", this, ExportService::cachedBytes);
+    }
+
+    /**
+     * When the BRD was last changed, read without loading any of it; this is
+     * all a conditional request needs.
+     */
+    public LocalDateTime lastModified(Long brdId) {
+        return brdDocumentRepository.findUpdatedAtById(brdId)
+                .orElseThrow(() -> new RuntimeException("BRD not found"));
+    }
+
+    /**
+     * The export of the BRD as last modified at {@code updatedAt}. A cache
+     * hit writes the stored bytes; a miss loads the BRD now and renders it
+     * when the export is written, keeping a copy only if it fits the
+     * per-entry limit. If the BRD changes in between, the newer version is
+     * what gets rendered.
+     */
+    public Export export(Long brdId, LocalDateTime updatedAt, Format format) {
+        byte[] cached;
+        synchronized (cache) {
+            cached = cache.get(new Key(brdId, updatedAt, format));
+        }
+        if (cached != null) {
+            hits.increment();
+            return new Export(format, updatedAt, (long) cached.length, out -> out.write(cached));
+        }
+
+        misses.increment();
+        BrdDocument brd = brdService.getBrd(brdId);
+        Key key = new Key(brdId, brd.getUpdatedAt(), format);
+        return new Export(format, brd.getUpdatedAt(), null, out -> {
+            CapturingOutputStream capture = new CapturingOutputStream(out, maxEntryBytes);
+            long start = System.nanoTime();
+            renderers.get(format).render(brd, capture);
+            renderTimers.get(format).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            byte[] content = capture.captured();
+            if (content != null) {
+                put(key, content);
+            }
+        });
+    }
+
+    /** Entity tag for one version of one export; changes whenever the BRD is saved. */
+    public static String etag(Long brdId, LocalDateTime updatedAt, Format format) {
+        return "\"brd-" + brdId + "-" + epochMicros(updatedAt) + "-" + format.extension() + "\"";
+    }
+
+    public static long lastModifiedMillis(LocalDateTime updatedAt) {
+        return updatedAt == null ? 0 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @EventListener
+    public void onBrdUpdated(BrdUpdatedEvent event) {
+        synchronized (cache) {
+            Iterator<Map.Entry<Key, byte[]>> it = cache.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, byte[]> entry = it.next();
+                if (entry.getKey().brdId().equals(event.brdId())) {
+                    cachedBytes -= entry.getValue().length;
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private void put(Key key, byte[] content) {
+        synchronized (cache) {
+            byte[] previous = cache.put(key, content);
+            if (previous != null) {
+                cachedBytes -= previous.length;
+            }
+            cachedBytes += content.length;
+            Iterator<byte[]> eldest = cache.values().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private long cachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    private static long epochMicros(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return 0;
+        }
+        return updatedAt.atZone(ZoneId.systemDefault()).toEpochSecond() * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    /**
+     * Passes everything through to the target and keeps a copy of it until
+     * the copy would exceed {@code limit}, after which the copy is dropped.
+     */
+    private static final class CapturingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        CapturingOutputStream(OutputStream target, int limit) {
+            super(target);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture(b, off, len);
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + len > limit) {
+                copy = null;
+            } else {
+                copy.write(b, off, len);
+            }
+        }
+
+        // The complete output, or null if it outgrew the limit
+        byte[] captured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        @Override
+        public void close() {
+            // The caller owns the target stream
+        }
+    }
+}
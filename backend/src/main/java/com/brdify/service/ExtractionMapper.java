@@ -0,0 +1,282 @@
+package com.brdify.service;
+
+import com.brdify.domain.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps the JSON returned by the extraction prompt for one chunk onto BRD
+ * entities, keeping the per-chunk link indices so RTM entries can be built
+ * once the entities have been saved.
+ * <p>
+ * The response is read with Jackson's streaming parser straight into the
+ * entities: no {@code JsonNode} tree and no copy of the JSON is built.
+ * Values are read leniently, the way {@code JsonNode.asText()} and
+ * {@code asInt()} would.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExtractionMapper {
+
+    /** Link index meaning "not linked". */
+    public static final int NO_LINK = -1;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Entities extracted from one chunk. The link arrays run parallel to
+     * {@code requirements} and hold the index into this chunk's decisions,
+     * risks or timelines that the model linked each requirement to, or
+     * {@link #NO_LINK}. Indices are as returned by the model and may be out
+     * of range.
+     */
+    public record ChunkExtraction(List<Requirement> requirements,
+            List<Decision> decisions,
+            List<Stakeholder> stakeholders,
+            List<Risk> risks,
+            List<Timeline> timelines,
+            int[] decisionLinks,
+            int[] riskLinks,
+            int[] timelineLinks) {
+    }
+
+    public ChunkExtraction map(String extractionJson, String chunk, BrdDocument brdDocument) throws IOException {
+        Builder builder = new Builder(chunk, brdDocument);
+
+        // Start at the JSON object, ignoring conversational text before it; the parser
+        // stops at the object's closing brace, so text after it is never read
+        int startIdx = extractionJson.indexOf('{');
+        StringReader reader = new StringReader(extractionJson);
+        if (startIdx > 0) {
+            reader.skip(startIdx);
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return builder.build();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "requirements" -> forEachElement(parser, builder::requirement);
+                    case "decisions" -> forEachElement(parser, builder::decision);
+                    case "stakeholders" -> forEachElement(parser, builder::stakeholder);
+                    case "risks" -> forEachElement(parser, builder::risk);
+                    case "timeline" -> forEachElement(parser, builder::timeline);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        void read(JsonParser parser) throws IOException;
+    }
+
+    // Calls the reader for each array element (or object field value), with the parser on its first token
+    private void forEachElement(JsonParser parser, ElementReader reader) throws IOException {
+        JsonToken container = parser.currentToken();
+        if (container == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                reader.read(parser);
+            }
+        } else if (container == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                reader.read(parser);
+            }
+        }
+        // Scalars have no elements
+    }
+
+    /**
+     * Text of the current value, consuming it: scalars as written, null as
+     * "null", objects and arrays as "".
+     */
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * Integer value of the current value, consuming it, or {@link #NO_LINK} for null.
+     */
+    private static int index(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_NULL -> NO_LINK;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getValueAsInt();
+            case VALUE_STRING -> NumberInput.parseAsInt(parser.getText().trim(), 0);
+            case VALUE_TRUE -> 1;
+            case START_OBJECT, START_ARRAY -> {
+                parser.skipChildren();
+                yield 0;
+            }
+            default -> 0;
+        };
+    }
+
+    private static final class Builder {
+        private final String chunk;
+        private final BrdDocument brdDocument;
+
+        private final List<Requirement> requirements = new ArrayList<>();
+        private final List<Decision> decisions = new ArrayList<>();
+        private final List<Stakeholder> stakeholders = new ArrayList<>();
+        private final List<Risk> risks = new ArrayList<>();
+        private final List<Timeline> timelines = new ArrayList<>();
+        private int[] decisionLinks = new int[16];
+        private int[] riskLinks = new int[16];
+        private int[] timelineLinks = new int[16];
+
+        Builder(String chunk, BrdDocument brdDocument) {
+            this.chunk = chunk;
+            this.brdDocument = brdDocument;
+        }
+
+        void requirement(JsonParser parser) throws IOException {
+            Requirement req = new Requirement();
+            String quote = chunk; // Default to whole chunk if quote missing
+            int decisionLink = NO_LINK;
+            int riskLink = NO_LINK;
+            int timelineLink = NO_LINK;
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                req.setDescription("");
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "description" -> req.setDescription(text(parser));
+                        case "sourceQuote" -> quote = text(parser);
+                        case "relatedDecisionIndex" -> decisionLink = index(parser);
+                        case "relatedRiskIndex" -> riskLink = index(parser);
+                        case "relatedTimelineIndex" -> timelineLink = index(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else {
+                req.setDescription(text(parser));
+            }
+            req.setSourceQuote(quote);
+            req.setType("FUNCTIONAL");
+            req.setPriority("MEDIUM");
+            req.setBrdDocument(brdDocument);
+
+            int i = requirements.size();
+            if (i == decisionLinks.length) {
+                decisionLinks = Arrays.copyOf(decisionLinks, i * 2);
+                riskLinks = Arrays.copyOf(riskLinks, i * 2);
+                timelineLinks = Arrays.copyOf(timelineLinks, i * 2);
+            }
+            decisionLinks[i] = decisionLink;
+            riskLinks[i] = riskLink;
+            timelineLinks[i] = timelineLink;
+            requirements.add(req);
+        }
+
+        void decision(JsonParser parser) throws IOException {
+            Decision dec = new Decision();
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                dec.setDescription("");
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("description".equals(field)) {
+                        dec.setDescription(text(parser));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                dec.setDescription(text(parser));
+            }
+            dec.setStatus("PENDING");
+            dec.setBrdDocument(brdDocument);
+            decisions.add(dec);
+        }
+
+        void stakeholder(JsonParser parser) throws IOException {
+            Stakeholder sh = new Stakeholder();
+            String raw = text(parser);
+            String[] parts = raw.split(":");
+            sh.setName(parts[0].trim());
+            if (parts.length > 1) {
+                sh.setRole(parts[1].trim());
+            }
+            sh.setBrdDocument(brdDocument);
+            stakeholders.add(sh);
+        }
+
+        void risk(JsonParser parser) throws IOException {
+            Risk risk = new Risk();
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                risk.setDescription("");
+                risk.setProbability("MEDIUM");
+                risk.setImpact("MEDIUM");
+                risk.setMitigation("");
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "description" -> risk.setDescription(text(parser));
+                        case "probability" -> risk.setProbability(text(parser));
+                        case "impact" -> risk.setImpact(text(parser));
+                        case "mitigation" -> risk.setMitigation(text(parser));
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else {
+                // Fallback if LLM returns string
+                risk.setDescription(text(parser));
+            }
+            risk.setBrdDocument(brdDocument);
+            risks.add(risk);
+        }
+
+        void timeline(JsonParser parser) throws IOException {
+            Timeline timeline = new Timeline();
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                timeline.setMilestone("");
+                timeline.setExpectedDate("");
+                timeline.setDescription("");
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "milestone" -> timeline.setMilestone(text(parser));
+                        case "expectedDate" -> timeline.setExpectedDate(text(parser));
+                        case "description" -> timeline.setDescription(text(parser));
+                        default -> parser.skipChildren();
+                    }
+                }
+            } else {
+                timeline.setMilestone(text(parser));
+            }
+            timeline.setBrdDocument(brdDocument);
+            timelines.add(timeline);
+        }
+
+        ChunkExtraction build() {
+            int n = requirements.size();
+            return new ChunkExtraction(requirements, decisions, stakeholders, risks, timelines,
+                    Arrays.copyOf(decisionLinks, n), Arrays.copyOf(riskLinks, n), Arrays.copyOf(timelineLinks, n));
+        }
+    }
+}
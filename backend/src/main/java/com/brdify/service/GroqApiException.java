@@ -0,0 +1,37 @@
+package com.brdify.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when Groq answers with a non-2xx status. A 2xx reply whose body
+ * cannot be parsed is reported as an {@link java.io.IOException} instead,
+ * and retried like a dropped connection.
+ */
+@Getter
+public class GroqApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    // Parsed from the Retry-After header on 429/503 responses, null if absent
+    private final Duration retryAfter;
+
+    public GroqApiException(int statusCode, String message) {
+        this(statusCode, message, null);
+    }
+
+    public GroqApiException(int statusCode, String message, Duration retryAfter) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+    }
+
+    public boolean isThrottled() {
+        return statusCode == 429;
+    }
+
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode >= 500;
+    }
+}
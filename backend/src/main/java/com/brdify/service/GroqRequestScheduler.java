@@ -0,0 +1,337 @@
+package com.brdify.service;
+
+import com.brdify.config.GroqProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single gate in front of every Groq call, shared by all concurrent uploads.
+ * Per model it enforces request and token budgets (token buckets refilled per
+ * minute), honours 429/Retry-After with jittered exponential backoff, and
+ * adapts the number of in-flight calls with AIMD: +1 per window of successes,
+ * halved on throttling.
+ * <p>
+ * Nothing here blocks a thread. Budget waits, backoff and lane pauses are
+ * delays on one timer thread, and a caller over the concurrency limit queues
+ * for a permit. Only in-flight HTTP exchanges count against the limit, so it
+ * can grow to {@code groq.scheduler.max-concurrency} regardless of any
+ * worker pool size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GroqRequestScheduler {
+
+    private final GroqProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ModelLane> lanes = new ConcurrentHashMap<>();
+
+    // Runs delays and dispatches calls; every task on it is short and non-blocking
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "groq-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts one Groq exchange without blocking, e.g. with
+     * {@code HttpClient.sendAsync}. Transport failures complete the future
+     * with an {@link IOException}.
+     */
+    @FunctionalInterface
+    public interface GroqCall<T> {
+        CompletableFuture<T> call();
+    }
+
+    /**
+     * Runs {@code call} once budget and a concurrency permit are available,
+     * retrying throttled, 5xx and transport failures. Cancelling the returned
+     * future stops any wait or retry and cancels the exchange in flight.
+     */
+    public <T> CompletableFuture<T> execute(String model, int estimatedTokens, GroqCall<T> call) {
+        Execution<T> execution = new Execution<>(model, lanes.computeIfAbsent(model, this::newLane),
+                estimatedTokens, call);
+        timer.execute(() -> execution.attempt(1));
+        return execution.result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private final class Execution<T> {
+        final String model;
+        final ModelLane lane;
+        final int estimatedTokens;
+        final GroqCall<T> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> exchange;
+
+        Execution(String model, ModelLane lane, int estimatedTokens, GroqCall<T> call) {
+            this.model = model;
+            this.lane = lane;
+            this.estimatedTokens = estimatedTokens;
+            this.call = call;
+            result.whenComplete((value, error) -> {
+                CompletableFuture<T> inFlight = exchange;
+                if (result.isCancelled() && inFlight != null) {
+                    inFlight.cancel(true);
+                }
+            });
+        }
+
+        void attempt(int attempt) {
+            after(lane.pauseRemainingNanos(), () ->
+                    // Spend budget before taking a concurrency slot so waiting callers don't hold slots
+                    after(Math.max(lane.requests.reserve(1), lane.tokens.reserve(estimatedTokens)), () ->
+                            lane.limit.acquire().thenRunAsync(() -> send(attempt), timer)));
+        }
+
+        private void send(int attempt) {
+            if (result.isDone()) {
+                // Cancelled while queued for the permit
+                lane.limit.release(Outcome.CANCELLED);
+                return;
+            }
+            CompletableFuture<T> pending;
+            try {
+                pending = call.call();
+            } catch (RuntimeException e) {
+                lane.limit.release(Outcome.ERROR);
+                count(model, "error");
+                result.completeExceptionally(e);
+                return;
+            }
+            exchange = pending;
+            pending.whenComplete((value, error) -> completed(attempt, value, error));
+        }
+
+        private void completed(int attempt, T value, Throwable error) {
+            Throwable failure = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (failure == null) {
+                lane.limit.release(Outcome.SUCCESS);
+                count(model, "success");
+                result.complete(value);
+                return;
+            }
+            if (failure instanceof CancellationException) {
+                lane.limit.release(Outcome.CANCELLED);
+                result.cancel(false);
+                return;
+            }
+            GroqApiException apiFailure = failure instanceof GroqApiException g ? g : null;
+            if (apiFailure != null) {
+                lane.limit.release(apiFailure.isThrottled() ? Outcome.THROTTLED : Outcome.ERROR);
+                if (!apiFailure.isRetryable()) {
+                    count(model, "error");
+                    result.completeExceptionally(apiFailure);
+                    return;
+                }
+            } else if (failure instanceof IOException) {
+                // Connect/read timeouts and dropped connections
+                lane.limit.release(Outcome.ERROR);
+            } else {
+                lane.limit.release(Outcome.ERROR);
+                count(model, "error");
+                result.completeExceptionally(failure);
+                return;
+            }
+
+            GroqProperties.Scheduler settings = properties.getScheduler();
+            boolean throttled = apiFailure != null && apiFailure.isThrottled();
+            count(model, throttled ? "throttled" : "retry");
+            if (attempt >= settings.getMaxAttempts()) {
+                result.completeExceptionally(new GroqApiException(apiFailure != null ? apiFailure.getStatusCode() : 0,
+                        "Groq call failed after " + attempt + " attempts: " + failure.getMessage()));
+                return;
+            }
+
+            Duration delay = backoff(attempt, apiFailure != null ? apiFailure.getRetryAfter() : null);
+            if (throttled) {
+                // Hold back every caller on this model, not just this one, to avoid a 429 storm
+                lane.pauseFor(delay);
+            }
+            log.warn("Groq call to {} failed (attempt {}/{}): {}. Retrying in {} ms", model, attempt,
+                    settings.getMaxAttempts(), failure.getMessage(), delay.toMillis());
+            after(delay.toNanos(), () -> attempt(attempt + 1));
+        }
+
+        // Runs the step on the timer thread after the delay, unless the call has been cancelled by then
+        private void after(long nanos, Runnable step) {
+            Runnable guarded = () -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    step.run();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            };
+            if (nanos > 0) {
+                timer.schedule(guarded, nanos, TimeUnit.NANOSECONDS);
+            } else {
+                guarded.run();
+            }
+        }
+    }
+
+    private Duration backoff(int attempt, Duration retryAfter) {
+        if (retryAfter != null) {
+            // Small jitter so callers released together don't hit the limit in lockstep
+            return retryAfter.plusMillis(ThreadLocalRandom.current().nextLong(250));
+        }
+        GroqProperties.Scheduler settings = properties.getScheduler();
+        long cap = Math.min(settings.getMaxBackoff().toMillis(),
+                settings.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        // Full jitter: uniform in [cap/2, cap]
+        return Duration.ofMillis(cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1));
+    }
+
+    private void count(String model, String outcome) {
+        meterRegistry.counter("brdify.groq.requests", "model", model, "outcome", outcome).increment();
+    }
+
+    private ModelLane newLane(String model) {
+        GroqProperties.Scheduler settings = properties.getScheduler();
+        ModelLane lane = new ModelLane(
+                new TokenBucket(properties.requestsPerMinuteFor(model)),
+                new TokenBucket(properties.tokensPerMinuteFor(model)),
+                new AimdLimit(settings.getInitialConcurrency(), settings.getMinConcurrency(),
+                        settings.getMaxConcurrency()));
+        meterRegistry.gauge("brdify.groq.concurrency.limit", Tags.of("model", model), lane.limit,
+                AimdLimit::currentLimit);
+        return lane;
+    }
+
+    private enum Outcome {
+        SUCCESS, THROTTLED, ERROR, CANCELLED
+    }
+
+    private static final class ModelLane {
+        final TokenBucket requests;
+        final TokenBucket tokens;
+        final AimdLimit limit;
+        private volatile long pausedUntilNanos = System.nanoTime();
+
+        ModelLane(TokenBucket requests, TokenBucket tokens, AimdLimit limit) {
+            this.requests = requests;
+            this.tokens = tokens;
+            this.limit = limit;
+        }
+
+        void pauseFor(Duration delay) {
+            long until = System.nanoTime() + delay.toNanos();
+            synchronized (this) {
+                if (until - pausedUntilNanos > 0) {
+                    pausedUntilNanos = until;
+                }
+            }
+        }
+
+        long pauseRemainingNanos() {
+            return pausedUntilNanos - System.nanoTime();
+        }
+    }
+
+    /**
+     * Per-minute budget refilled continuously. Callers reserve up front and are
+     * told how long to wait, so the balance may go negative (debt is paid by
+     * later callers waiting longer) and waiters never hold the lock.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.refillPerNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.available = capacity;
+        }
+
+        synchronized long reserve(double amount) {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+            // A single request larger than the whole budget still goes through once the bucket is full
+            available -= Math.min(amount, capacity);
+            return available >= 0 ? 0 : (long) (-available / refillPerNano);
+        }
+    }
+
+    /**
+     * Additive-increase / multiplicative-decrease limit on in-flight calls.
+     * Callers over the limit wait in FIFO order for a released permit.
+     */
+    private static final class AimdLimit {
+        private final int min;
+        private final int max;
+        private double limit;
+        private int inFlight;
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+        AimdLimit(int initial, int min, int max) {
+            this.min = Math.max(1, min);
+            this.max = Math.max(this.min, max);
+            this.limit = Math.max(this.min, Math.min(this.max, initial));
+        }
+
+        synchronized CompletableFuture<Void> acquire() {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> permit = new CompletableFuture<>();
+            waiters.add(permit);
+            return permit;
+        }
+
+        void release(Outcome outcome) {
+            List<CompletableFuture<Void>> granted = new ArrayList<>();
+            synchronized (this) {
+                inFlight--;
+                if (outcome == Outcome.SUCCESS) {
+                    // Grows by ~1 after a full window of successful calls
+                    limit = Math.min(max, limit + 1.0 / limit);
+                } else if (outcome == Outcome.THROTTLED) {
+                    limit = Math.max(min, limit / 2);
+                }
+                while (inFlight < (int) limit && !waiters.isEmpty()) {
+                    inFlight++;
+                    granted.add(waiters.poll());
+                }
+            }
+            // Completed outside the lock; the waiters continue on the timer thread
+            granted.forEach(permit -> permit.complete(null));
+        }
+
+        synchronized double currentLimit() {
+            return limit;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.brdify.service;
+
+import com.brdify.domain.GroqCacheEntry;
+import com.brdify.repository.GroqCacheEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Two-tier, content-addressed cache of Groq completions. A bounded in-memory
+ * LRU sits in front of the {@code groq_cache_entry} table, which survives
+ * restarts. Only successful responses should be stored.
+ */
+@Slf4j
+@Service
+public class GroqResponseCache {
+
+    private final GroqCacheEntryRepository repository;
+    private final Map<String, String> memory;
+    private final boolean persistent;
+
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+
+    public GroqResponseCache(GroqCacheEntryRepository repository, MeterRegistry meterRegistry,
+            @Value("${brdify.groq.cache.max-entries:1000}") int maxEntries,
+            @Value("${brdify.groq.cache.persistent:true}") boolean persistent) {
+        this.repository = repository;
+        this.persistent = persistent;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.memoryHits = meterRegistry.counter("brdify.groq.cache.requests", "result", "hit", "tier", "memory");
+        this.persistentHits = meterRegistry.counter("brdify.groq.cache.requests", "result", "hit", "tier", "persistent");
+        this.misses = meterRegistry.counter("brdify.groq.cache.requests", "result", "miss", "tier", "none");
+        meterRegistry.gauge("brdify.groq.cache.memory.size", memory, m -> {
+            synchronized (m) {
+                return m.size();
+            }
+        });
+    }
+
+    public String keyFor(String model, String systemPrompt, String userContent, double temperature) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // NUL separators so shifting text between fields can't produce the same key
+            for (String part : new String[] { model, systemPrompt, userContent, Double.toString(temperature) }) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        String cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        if (persistent) {
+            Optional<String> stored = readPersistent(key);
+            if (stored.isPresent()) {
+                persistentHits.increment();
+                synchronized (memory) {
+                    memory.put(key, stored.get());
+                }
+                return stored;
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String model, String response) {
+        synchronized (memory) {
+            memory.put(key, response);
+        }
+        if (!persistent) {
+            return;
+        }
+
+        GroqCacheEntry entry = new GroqCacheEntry();
+        entry.setKey(key);
+        entry.setModel(model);
+        entry.setResponse(response);
+        try {
+            repository.save(entry);
+        } catch (DataAccessException e) {
+            // Another upload may have stored the same key concurrently; the memory tier still has it
+            log.warn("Could not persist Groq cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public boolean invalidate(String key) {
+        boolean removed;
+        synchronized (memory) {
+            removed = memory.remove(key) != null;
+        }
+        if (persistent && repository.existsById(key)) {
+            repository.deleteById(key);
+            removed = true;
+        }
+        return removed;
+    }
+
+    public long invalidateAll() {
+        long removed;
+        synchronized (memory) {
+            removed = memory.size();
+            memory.clear();
+        }
+        if (persistent) {
+            // The persistent tier holds everything the memory tier does
+            removed = repository.count();
+            repository.deleteAllInBatch();
+        }
+        return removed;
+    }
+
+    private Optional<String> readPersistent(String key) {
+        try {
+            return repository.findById(key).map(GroqCacheEntry::getResponse);
+        } catch (DataAccessException e) {
+            log.warn("Groq cache lookup failed for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
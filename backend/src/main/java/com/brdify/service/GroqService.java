@@ -1,110 +1,290 @@
 package com.brdify.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import com.brdify.config.GroqProperties;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GroqService {
 
-    @Value("${groq.api.key}")
-    private String apiKey;
+    private final GroqResponseCache responseCache;
+    private final GroqRequestScheduler requestScheduler;
+    private final GroqProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenEstimator tokenEstimator;
+    private final MeterRegistry meterRegistry;
+    @Qualifier("extractionExecutor")
+    private final Executor extractionExecutor;
 
-    private final String GROQ_API_URL = "https://api.groq.com/openai/v1/chat/completions";
-    private final RestTemplate restTemplate = new RestTemplate();
+    // One pooled HTTP/2 client per distinct connect timeout; models sharing a timeout share connections
+    private final Map<Duration, HttpClient> httpClients = new ConcurrentHashMap<>();
 
     // Models mapped to specific tasks
     private static final String MODEL_EXTRACTION = "llama-3.3-70b-versatile"; // Replaced decommissioned mixtral model
     private static final String MODEL_SUMMARY = "llama-3.3-70b-versatile";
     private static final String MODEL_EDITING = "llama-3.1-8b-instant";
 
-    public String extractRequirements(String context) {
-        String systemPrompt = "You are a specialized business analyst. Your goal is to extract structured business requirements from the provided text. "
-                + "Return the output as a JSON object strictly adhering to these keys: \n" +
-                "- 'decisions' (array of strings)\n" +
-                "- 'risks' (array of objects with 'description', 'probability', 'impact', 'mitigation')\n" +
-                "- 'timeline' (array of objects with 'milestone', 'expectedDate', 'description')\n" +
-                "- 'stakeholders' (array of strings formatted 'Name: Role' or 'Name')\n" +
-                "- 'requirements' (array of objects with 'description', 'sourceQuote', 'relatedDecisionIndex', 'relatedRiskIndex', 'relatedTimelineIndex').\n"
-                +
-                "\nCRITICAL INSTRUCTIONS FOR 'requirements':\n" +
-                "1. 'description' MUST be a formal, professionally written business requirement statement (e.g., 'The system shall...').\n"
-                +
-                "2. 'sourceQuote' MUST be a SHORT, exact verbatim phrase (under 15 words) from the source text that justifies the requirement. It MUST NOT be identical to the description.\n"
-                +
-                "3. 'relatedDecisionIndex', 'relatedRiskIndex', 'relatedTimelineIndex' MUST be an integer 0-indexed number (0, 1, 2) pointing to the element you generated. If no link, set to null.";
+    private static final String EXTRACTION_SYSTEM_PROMPT = "You are a specialized business analyst. Your goal is to extract structured business requirements from the provided text. "
+            + "Return the output as a JSON object strictly adhering to these keys: \n" +
+            "- 'decisions' (array of strings)\n" +
+            "- 'risks' (array of objects with 'description', 'probability', 'impact', 'mitigation')\n" +
+            "- 'timeline' (array of objects with 'milestone', 'expectedDate', 'description')\n" +
+            "- 'stakeholders' (array of strings formatted 'Name: Role' or 'Name')\n" +
+            "- 'requirements' (array of objects with 'description', 'sourceQuote', 'relatedDecisionIndex', 'relatedRiskIndex', 'relatedTimelineIndex').\n"
+            +
+            "\nCRITICAL INSTRUCTIONS FOR 'requirements':\n" +
+            "1. 'description' MUST be a formal, professionally written business requirement statement (e.g., 'The system shall...').\n"
+            +
+            "2. 'sourceQuote' MUST be a SHORT, exact verbatim phrase (under 15 words) from the source text that justifies the requirement. It MUST NOT be identical to the description.\n"
+            +
+            "3. 'relatedDecisionIndex', 'relatedRiskIndex', 'relatedTimelineIndex' MUST be an integer 0-indexed number (0, 1, 2) pointing to the element you generated. If no link, set to null.";
+    private static final String EXTRACTION_USER_PREFIX = "Analyze the following text and extract requirements:\n\n";
 
-        String userMessage = "Analyze the following text and extract requirements:\n\n" + context;
+    private static final String SUMMARY_SYSTEM_PROMPT = "You are an expert executive summarizer. Consolidate the provided business requirements and context into a professional, high-level Executive Summary.";
+    private static final String SUMMARY_USER_PREFIX = "Please summarize the following extracted data for a BRD executive summary:\n\n";
 
-        return callGroqApi(systemPrompt, userMessage, MODEL_EXTRACTION, 0.1);
+    private static final String CONDENSE_SYSTEM_PROMPT = "You are an expert business analyst. Condense the provided notes from part of a larger document into a compact summary. "
+            + "Keep every distinct requirement theme, decision, risk, milestone and stakeholder; drop repetition and filler. Return plain text only.";
+    private static final String CONDENSE_USER_PREFIX = "Condense the following notes in at most %d words:\n\n";
+
+    /**
+     * Extracts requirements from {@code context} and completes with the reply
+     * as read by {@code reader}, which runs on the extraction pool. The reply
+     * is cached only once {@code reader} has accepted it, so a truncated or
+     * malformed reply is asked for again next time rather than served from
+     * the cache.
+     */
+    public <T> CompletableFuture<T> extractRequirements(String context, Function<String, T> reader) {
+        String userMessage = EXTRACTION_USER_PREFIX + context;
+
+        return callGroqApi(EXTRACTION_SYSTEM_PROMPT, userMessage, MODEL_EXTRACTION, 0.1, reader);
+    }
+
+    /**
+     * Largest chunk, in estimated tokens, that fits the extraction model's
+     * input budget and context window once the prompt and output are accounted for.
+     */
+    public int extractionChunkTokenBudget() {
+        int promptOverhead = tokenEstimator.estimate(EXTRACTION_SYSTEM_PROMPT)
+                + tokenEstimator.estimate(EXTRACTION_USER_PREFIX);
+        int inputBudget = Math.min(properties.inputTokenBudgetFor(MODEL_EXTRACTION),
+                properties.contextWindowFor(MODEL_EXTRACTION) - properties.maxOutputTokensFor(MODEL_EXTRACTION));
+        return Math.max(1, inputBudget - promptOverhead);
     }
 
-    public String generateExecutiveSummary(String context) {
-        String systemPrompt = "You are an expert executive summarizer. Consolidate the provided business requirements and context into a professional, high-level Executive Summary.";
-        String userMessage = "Please summarize the following extracted data for a BRD executive summary:\n\n" + context;
+    public CompletableFuture<String> generateExecutiveSummary(String context) {
+        String userMessage = SUMMARY_USER_PREFIX + context;
+
+        return callGroqApi(SUMMARY_SYSTEM_PROMPT, userMessage, MODEL_SUMMARY, 0.3, Function.identity());
+    }
+
+    /**
+     * Largest context, in estimated tokens, that can be passed to
+     * {@link #generateExecutiveSummary} within the summary model's budgets.
+     */
+    public int summaryInputTokenBudget() {
+        int promptOverhead = tokenEstimator.estimate(SUMMARY_SYSTEM_PROMPT)
+                + tokenEstimator.estimate(SUMMARY_USER_PREFIX);
+        int inputBudget = Math.min(properties.inputTokenBudgetFor(MODEL_SUMMARY),
+                properties.contextWindowFor(MODEL_SUMMARY) - properties.maxOutputTokensFor(MODEL_SUMMARY));
+        return Math.max(1, inputBudget - promptOverhead);
+    }
+
+    /**
+     * Condenses part of the summary input so several parts fit one
+     * executive-summary prompt. {@code targetTokens} caps the reply length.
+     */
+    public CompletableFuture<String> condenseSummary(String context, int targetTokens) {
+        // Roughly three words per four tokens of English prose
+        String userMessage = String.format(CONDENSE_USER_PREFIX, Math.max(1, targetTokens * 3 / 4)) + context;
+
+        return callGroqApi(CONDENSE_SYSTEM_PROMPT, userMessage, MODEL_SUMMARY, 0.3, Function.identity());
+    }
 
-        return callGroqApi(systemPrompt, userMessage, MODEL_SUMMARY, 0.3);
+    /**
+     * Most tokens the summary model is allowed to generate per reply.
+     */
+    public int summaryOutputTokenLimit() {
+        return properties.maxOutputTokensFor(MODEL_SUMMARY);
     }
 
-    public String editContent(String currentContent, String editInstruction) {
+    public CompletableFuture<String> editContent(String currentContent, String editInstruction) {
         String systemPrompt = "You are a precise document editor. Apply the user's editing instructions to the current content. ONLY return the final edited text without conversational filler.";
         String userMessage = "Current Content:\n" + currentContent + "\n\nEdit Instruction:\n" + editInstruction;
 
-        return callGroqApi(systemPrompt, userMessage, MODEL_EDITING, 0.2);
+        return callGroqApi(systemPrompt, userMessage, MODEL_EDITING, 0.2, Function.identity());
     }
 
-    private String callGroqApi(String systemPromptContent, String userMessageContent, String model,
-            double temperature) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + apiKey);
-        headers.set("Content-Type", "application/json");
+    /**
+     * Completes with the model's reply as read by {@code reader}; no thread
+     * waits while the call is queued or in flight. The reply is cached only
+     * if {@code reader} accepts it, and a cached reply it rejects is evicted.
+     * Failures complete it with a {@link GroqApiException} once the
+     * scheduler has exhausted its retries, or with whatever {@code reader}
+     * threw. Cancelling it cancels the scheduled call.
+     */
+    private <T> CompletableFuture<T> callGroqApi(String systemPromptContent, String userMessageContent,
+            String model, double temperature, Function<String, T> reader) {
+        String cacheKey = responseCache.keyFor(model, systemPromptContent, userMessageContent, temperature);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return CompletableFuture.supplyAsync(() -> readCached(cacheKey, cached.get(), reader), extractionExecutor);
+        }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("model", model);
+        int estimatedPromptTokens = tokenEstimator.estimate(systemPromptContent)
+                + tokenEstimator.estimate(userMessageContent);
+        CompletableFuture<String> call = requestScheduler.execute(model,
+                estimatedPromptTokens + properties.maxOutputTokensFor(model),
+                () -> sendChatCompletion(systemPromptContent, userMessageContent, model, temperature,
+                        estimatedPromptTokens));
+        // Reading and the cache write (which may hit the database) run on the extraction pool, not the HTTP client's
+        return cancellingSource(call.thenApplyAsync(groqResponse -> {
+            if (groqResponse == null) {
+                return reader.apply("{}");
+            }
+            T value = reader.apply(groqResponse);
+            responseCache.put(cacheKey, model, groqResponse);
+            return value;
+        }, extractionExecutor), call);
+    }
 
-        Map<String, String> systemMessage = new HashMap<>();
-        systemMessage.put("role", "system");
-        systemMessage.put("content", systemPromptContent);
+    // Entries stored before replies were checked may not read; drop them so the next call asks Groq again
+    private <T> T readCached(String cacheKey, String cachedResponse, Function<String, T> reader) {
+        try {
+            return reader.apply(cachedResponse);
+        } catch (RuntimeException e) {
+            log.warn("Evicting cached Groq reply {} that could not be read: {}", cacheKey, e.getMessage());
+            responseCache.invalidate(cacheKey);
+            throw e;
+        }
+    }
 
-        Map<String, String> userMessage = new HashMap<>();
-        userMessage.put("role", "user");
-        userMessage.put("content", userMessageContent);
+    private CompletableFuture<String> sendChatCompletion(String systemPromptContent, String userMessageContent,
+            String model, double temperature, int estimatedPromptTokens) {
+        ChatCompletionRequest body = new ChatCompletionRequest(model,
+                List.of(new ChatMessage("system", systemPromptContent), new ChatMessage("user", userMessageContent)),
+                temperature, properties.maxOutputTokensFor(model));
 
-        body.put("messages", List.of(systemMessage, userMessage));
-        body.put("temperature", temperature);
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(properties.getApi().getUrl()))
+                    .timeout(properties.readTimeoutFor(model))
+                    .header("Authorization", "Bearer " + properties.getApi().getKey())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UncheckedIOException("Failed to encode Groq request", e));
+        }
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        // No thread waits on the exchange; the body is parsed on the client's executor once it has arrived
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClientFor(model).sendAsync(request,
+                HttpResponse.BodyHandlers.ofByteArray());
+        return cancellingSource(exchange.thenApply(response -> readCompletion(response, model, estimatedPromptTokens)),
+                exchange);
+    }
 
-        try {
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(GROQ_API_URL, HttpMethod.POST, entity,
-                    (Class<Map<String, Object>>) (Class<?>) Map.class);
-            Map<String, Object> responseBody = response.getBody();
-            if (responseBody != null && responseBody.containsKey("choices")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
-                if (!choices.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                    String groqResponse = (String) message.get("content");
-                    log.info("Groq raw response: {}", groqResponse);
-                    return groqResponse;
-                }
+    // Cancelling a dependent stage leaves its source running; forward the cancel so queued or in-flight work stops
+    private static <T> CompletableFuture<T> cancellingSource(CompletableFuture<T> dependent,
+            CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "{\"error\": \"Failed to call Groq API: " + e.getMessage() + "\"}";
+        });
+        return dependent;
+    }
+
+    private String readCompletion(HttpResponse<byte[]> response, String model, int estimatedPromptTokens) {
+        if (response.statusCode() / 100 != 2) {
+            throw new GroqApiException(response.statusCode(), "Groq returned HTTP " + response.statusCode(),
+                    retryAfter(response));
+        }
+
+        ChatCompletionResponse completion;
+        try {
+            completion = objectMapper.readValue(response.body(), ChatCompletionResponse.class);
+        } catch (IOException e) {
+            // Surfaces as an IOException, which the scheduler retries like a dropped connection
+            throw new CompletionException(e);
+        }
+        if (completion.usage() != null && completion.usage().promptTokens() > 0 && estimatedPromptTokens > 0) {
+            // Groq counts with the real tokenizer; above 1 means TokenEstimator undercounted this prompt
+            meterRegistry.summary("brdify.groq.prompt.tokens.ratio", "model", model)
+                    .record((double) completion.usage().promptTokens() / estimatedPromptTokens);
         }
-        return "{}";
+        if (completion.choices() == null || completion.choices().isEmpty()
+                || completion.choices().get(0).message() == null) {
+            return null;
+        }
+        String groqResponse = completion.choices().get(0).message().content();
+        log.info("Groq raw response: {}", groqResponse);
+        return groqResponse;
+    }
+
+    private Duration retryAfter(HttpResponse<?> response) {
+        // Groq sends delta-seconds; HTTP-date values are not used by the API
+        return response.headers().firstValue("retry-after")
+                .map(value -> {
+                    try {
+                        return Duration.ofMillis((long) (Double.parseDouble(value.trim()) * 1000));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private HttpClient httpClientFor(String model) {
+        return httpClients.computeIfAbsent(properties.connectTimeoutFor(model), connectTimeout -> HttpClient
+                .newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build());
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatMessage(String role, String content) {
+    }
+
+    // max_tokens caps the reply at the output share the token budgets already reserve
+    record ChatCompletionRequest(String model, List<ChatMessage> messages, double temperature,
+            @JsonProperty("max_tokens") int maxTokens) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChatCompletionResponse(List<Choice> choices, Usage usage) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Usage(@JsonProperty("prompt_tokens") int promptTokens) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record Choice(ChatMessage message) {
     }
 }
@@ -1,36 +1,307 @@
 package com.brdify.service;
 
 import org.springframework.stereotype.Service;
-import java.util.regex.Pattern;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.function.Consumer;
 
 @Service
 public class PreprocessingService {
 
-    // Regex to identify common email headers and footers
-    private static final Pattern EMAIL_HEADER_PATTERN = Pattern.compile("^(From:|To:|Sent:|Subject:).*",
-            Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-    private static final Pattern DISCLAIMER_PATTERN = Pattern.compile("Disclaimer:.*|Confidentiality Notice:.*",
-            Pattern.CASE_INSENSITIVE);
+    // Cleaning rules, applied in one pass:
+    // 1. \r\n and \r become \n
+    // 2. Runs of 3+ line breaks collapse to 2 (paragraph breaks survive)
+    // 3. Lines starting with From:, To:, Sent: or Subject: are blanked (email headers)
+    // 4. Text from Disclaimer: or Confidentiality Notice: to the end of the line is dropped
+    // 5. Leading and trailing whitespace is trimmed
+    // Matching is ASCII case-insensitive. Like the regexes these rules replaced,
+    // rules 3 and 4 also treat U+0085, U+2028 and U+2029 as line ends.
+    private static final String[] EMAIL_HEADERS = { "from:", "to:", "sent:", "subject:" };
+    private static final String DISCLAIMER = "disclaimer:";
+    private static final String CONFIDENTIALITY_NOTICE = "confidentiality notice:";
+    // Characters cleanSegments reads at a time, and about the most it hands on at once
+    private static final int SEGMENT_CHARS = 8192;
+    // Longest keyword rules 3 and 4 match, so a match never straddles a refill
+    private static final int LOOKAHEAD = CONFIDENTIALITY_NOTICE.length();
 
     public String cleanText(String input) {
         if (input == null || input.isEmpty()) {
             return "";
         }
 
-        // 1. Normalize line endings
-        String cleaned = input.replace("\r\n", "\n").replace("\r", "\n");
+        StringBuilder out = new StringBuilder(input.length());
+        int breaks = 0; // Consecutive line breaks seen with nothing in between
+        int lineStart = 0;
+        int n = input.length();
+        while (lineStart <= n) {
+            int lineEnd = lineStart;
+            while (lineEnd < n && input.charAt(lineEnd) != '\n' && input.charAt(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            if (lineEnd > lineStart) {
+                breaks = 0;
+                appendCleanedLine(input, lineStart, lineEnd, out);
+            }
+            if (lineEnd == n) {
+                break;
+            }
+            if (++breaks <= 2) {
+                out.append('\n');
+            }
+            boolean crlf = input.charAt(lineEnd) == '\r' && lineEnd + 1 < n && input.charAt(lineEnd + 1) == '\n';
+            lineStart = lineEnd + (crlf ? 2 : 1);
+        }
+
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && out.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return out.substring(start, end);
+    }
+
+    /**
+     * Streaming equivalent of {@link #cleanText(String)}: reads through a
+     * fixed buffer and hands the cleaned text to {@code sink} in pieces of
+     * roughly {@value #SEGMENT_CHARS} characters, cut wherever the buffer
+     * fills, even mid-line. Memory stays bounded however long a line is.
+     * Concatenating the pieces gives the same text as cleanText, except that
+     * a run of trailing whitespace longer than a piece is kept, not trimmed.
+     */
+    public void cleanSegments(Reader input, Consumer<String> sink) throws IOException {
+        char[] buf = new char[SEGMENT_CHARS];
+        CharSequence view = CharBuffer.wrap(buf);
+        int pos = 0;
+        int limit = 0;
+        boolean eof = false;
+        TrimmingSink out = new TrimmingSink(sink);
+        int breaks = 0; // Consecutive line breaks seen with nothing in between
+        boolean afterCr = false; // A \n straight after \r belongs to the same break (rule 1)
+        boolean segmentStart = true;
+        boolean dropping = false; // Inside text removed by rule 3 or 4, up to the end of its segment
+        while (true) {
+            if (limit - pos < LOOKAHEAD && !eof) {
+                // Refill before a keyword could straddle the end of the buffer
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+                while (limit - pos < LOOKAHEAD && !eof) {
+                    int read = input.read(buf, limit, buf.length - limit);
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        limit += read;
+                    }
+                }
+            }
+            if (pos == limit) {
+                break;
+            }
 
-        // 2. Remove multiple empty lines (preserve paragraph breaks but remove
-        // excessive spacing)
-        cleaned = cleaned.replaceAll("\n{3,}", "\n\n");
+            if (!dropping && !segmentStart && isPlain(buf[pos])) {
+                // Most text matches no rule; copy the run up to the next character that might
+                int end = pos + 1;
+                while (end < limit && isPlain(buf[end])) {
+                    end++;
+                }
+                out.append(buf, pos, end);
+                afterCr = false;
+                breaks = 0;
+                pos = end;
+                continue;
+            }
 
-        // 3. Remove email headers (basic)
-        cleaned = EMAIL_HEADER_PATTERN.matcher(cleaned).replaceAll("");
+            char c = buf[pos++];
+            if (c == '\n' || c == '\r') {
+                if (c == '\n' && afterCr) {
+                    afterCr = false;
+                    continue;
+                }
+                afterCr = c == '\r';
+                if (++breaks <= 2) {
+                    out.append('\n');
+                }
+                segmentStart = true;
+                dropping = false;
+                continue;
+            }
+            afterCr = false;
+            breaks = 0;
+            if (isSegmentBreak(c)) {
+                out.append(c);
+                dropping = false;
+            } else if (dropping) {
+                continue;
+            } else if (segmentStart && startsWithEmailHeader(view, pos - 1, limit)) {
+                dropping = true;
+            } else if (((c | 0x20) == 'd' && regionMatchesAscii(view, pos - 1, limit, DISCLAIMER))
+                    || ((c | 0x20) == 'c' && regionMatchesAscii(view, pos - 1, limit, CONFIDENTIALITY_NOTICE))) {
+                dropping = true;
+            } else {
+                out.append(c);
+            }
+            segmentStart = isSegmentBreak(c);
+        }
+        out.finish();
+    }
 
-        // 4. Remove generic disclaimers (basic)
-        cleaned = DISCLAIMER_PATTERN.matcher(cleaned).replaceAll("");
+    // Applies rules 3 and 4 to input[from, to), which holds no \r or \n
+    private void appendCleanedLine(CharSequence input, int from, int to, StringBuilder out) {
+        int i = from;
+        boolean segmentStart = true;
+        while (i < to) {
+            if (segmentStart) {
+                segmentStart = false;
+                if (startsWithEmailHeader(input, i, to)) {
+                    i = segmentEnd(input, i, to);
+                    continue;
+                }
+            }
+            char c = input.charAt(i);
+            if (isSegmentBreak(c)) {
+                out.append(c);
+                segmentStart = true;
+                i++;
+            } else if (((c | 0x20) == 'd' && regionMatchesAscii(input, i, to, DISCLAIMER))
+                    || ((c | 0x20) == 'c' && regionMatchesAscii(input, i, to, CONFIDENTIALITY_NOTICE))) {
+                i = segmentEnd(input, i, to);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+    }
+
+    private boolean startsWithEmailHeader(CharSequence input, int at, int to) {
+        for (String header : EMAIL_HEADERS) {
+            if (regionMatchesAscii(input, at, to, header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int segmentEnd(CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to && !isSegmentBreak(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // Neither a break nor the first letter of a rule 4 keyword
+    private static boolean isPlain(char c) {
+        int lower = c | 0x20;
+        return lower != 'c' && lower != 'd' && c != '\n' && c != '\r' && !isSegmentBreak(c);
+    }
 
-        // 5. Trim whitespace
-        return cleaned.trim();
+    private static boolean isSegmentBreak(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // Case-insensitive for ASCII letters only; lowerCaseWord must be lower case
+    private static boolean regionMatchesAscii(CharSequence input, int at, int to, String lowerCaseWord) {
+        if (to - at < lowerCaseWord.length()) {
+            return false;
+        }
+        for (int k = 0; k < lowerCaseWord.length(); k++) {
+            char c = input.charAt(at + k);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCaseWord.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies String.trim() semantics to a stream of characters: whitespace
+     * (any char <= ' ') before the first other character is dropped, and each
+     * later whitespace run is held back until a non-blank character shows it
+     * is interior. A held run that outgrows a piece is passed on regardless.
+     */
+    private static final class TrimmingSink {
+        private final Consumer<String> sink;
+        private final StringBuilder out = new StringBuilder();
+        private final StringBuilder held = new StringBuilder();
+        private boolean started;
+
+        TrimmingSink(Consumer<String> sink) {
+            this.sink = sink;
+        }
+
+        void append(char c) {
+            if (c <= ' ') {
+                if (started) {
+                    held.append(c);
+                    if (held.length() >= SEGMENT_CHARS) {
+                        releaseHeld();
+                    }
+                }
+                return;
+            }
+            started = true;
+            if (!held.isEmpty()) {
+                releaseHeld();
+            }
+            out.append(c);
+            if (out.length() >= SEGMENT_CHARS) {
+                flush();
+            }
+        }
+
+        void append(char[] chars, int from, int to) {
+            int first = from;
+            while (first < to && chars[first] <= ' ') {
+                first++;
+            }
+            int last = to;
+            while (last > first && chars[last - 1] <= ' ') {
+                last--;
+            }
+            if (started) {
+                held.append(chars, from, first - from);
+            }
+            if (first < last) {
+                started = true;
+                if (!held.isEmpty()) {
+                    releaseHeld();
+                }
+                out.append(chars, first, last - first);
+            }
+            held.append(chars, last, to - last);
+            if (held.length() >= SEGMENT_CHARS) {
+                releaseHeld();
+            }
+            if (out.length() >= SEGMENT_CHARS) {
+                flush();
+            }
+        }
+
+        void finish() {
+            flush();
+        }
+
+        private void releaseHeld() {
+            out.append(held);
+            held.setLength(0);
+            if (out.length() >= SEGMENT_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!out.isEmpty()) {
+                sink.accept(out.toString());
+                out.setLength(0);
+            }
+        }
     }
 }
@@ -0,0 +1,27 @@
+package com.brdify.service;
+
+import java.time.Duration;
+
+/**
+ * Receives progress callbacks while {@link BrdService#processSourceData} runs.
+ * Callbacks for chunk progress arrive on extraction worker threads, so
+ * implementations must be thread-safe, and may arrive out of order: each
+ * report is consistent in itself, but a later one can carry lower counts.
+ */
+public interface ProcessingListener {
+
+    ProcessingListener NONE = new ProcessingListener() {
+    };
+
+    default void onStage(String stage) {
+    }
+
+    default void onChunkProgress(int chunksDone, int chunksTotal) {
+    }
+
+    /**
+     * Wall-clock time spent in a pipeline stage. Stages may overlap.
+     */
+    default void onStageTiming(String stage, Duration elapsed) {
+    }
+}
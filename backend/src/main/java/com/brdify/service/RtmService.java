@@ -1,19 +1,289 @@
 package com.brdify.service;
 
-import com.brdify.domain.RtmEntry;
+import com.brdify.domain.*;
+import com.brdify.dto.RtmRow;
+import com.brdify.dto.SectionPage;
 import com.brdify.repository.RtmEntryRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class RtmService {
 
     private final RtmEntryRepository rtmEntryRepository;
+    private final ObjectMapper objectMapper;
 
-    public List<RtmEntry> getRtmForBrd(Long brdId) {
-        return rtmEntryRepository.findByBrdDocumentId(brdId);
+    // Rows an XLSX export keeps in memory; older rows are flushed to a temp file
+    @Value("${brdify.export.rtm.xlsx-row-window:100}")
+    private int xlsxRowWindow;
+
+    private static final String[] EXPORT_COLUMNS = {"RTM ID", "Requirement ID", "Requirement", "Source Excerpt",
+            "Decision ID", "Decision", "Risk ID", "Risk", "Timeline ID", "Milestone"};
+
+    // Excel rejects longer cell text
+    private static final int MAX_XLSX_CELL_LENGTH = 32767;
+
+    public SectionPage<RtmRow> getRtmPage(Long brdId, int page, int size) {
+        return SectionPage.of(rtmEntryRepository.findRowsByBrdDocumentId(brdId, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Writes the BRD's whole matrix to {@code out} as a JSON array of
+     * {@link RtmRow}s. Rows are streamed from the database and written as
+     * they arrive, so memory use does not grow with the size of the matrix.
+     */
+    @Transactional(readOnly = true)
+    public void writeRtm(Long brdId, OutputStream out) throws IOException {
+        try (Stream<RtmRow> rows = rtmEntryRepository.streamRowsByBrdDocumentId(brdId);
+                JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.writeStartArray();
+            for (Iterator<RtmRow> it = rows.iterator(); it.hasNext();) {
+                RtmRow row = it.next();
+                json.writeStartObject();
+                writeNumber(json, "id", row.id());
+                writeNumber(json, "requirementId", row.requirementId());
+                json.writeStringField("requirement", row.requirement());
+                json.writeStringField("sourceExcerpt", row.sourceExcerpt());
+                writeNumber(json, "decisionId", row.decisionId());
+                json.writeStringField("decision", row.decision());
+                writeNumber(json, "riskId", row.riskId());
+                json.writeStringField("risk", row.risk());
+                writeNumber(json, "timelineId", row.timelineId());
+                json.writeStringField("milestone", row.milestone());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes the BRD's whole matrix to {@code out} as RFC 4180 CSV with a
+     * header row. Rows are streamed from the database like
+     * {@link #writeRtm}, so the export runs in constant memory.
+     */
+    @Transactional(readOnly = true)
+    public void writeRtmCsv(Long brdId, OutputStream out) throws IOException {
+        // Not closed: the response owns the stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<RtmRow> rows = rtmEntryRepository.streamRowsByBrdDocumentId(brdId)) {
+            // A byte order mark, so Excel opens the file as UTF-8
+            writer.write('\uFEFF');
+            writeCsvLine(writer, EXPORT_COLUMNS);
+            for (Iterator<RtmRow> it = rows.iterator(); it.hasNext();) {
+                writeCsvLine(writer, exportValues(it.next()));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the BRD's whole matrix to {@code out} as an XLSX workbook with
+     * one sheet. POI's streaming workbook keeps only the last
+     * {@code brdify.export.rtm.xlsx-row-window} rows in memory and spills the
+     * rest to a compressed temp file, which is deleted once the workbook has
+     * been written.
+     */
+    @Transactional(readOnly = true)
+    public void writeRtmXlsx(Long brdId, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxRowWindow);
+        workbook.setCompressTempFiles(true);
+        try (Stream<RtmRow> rows = rtmEntryRepository.streamRowsByBrdDocumentId(brdId)) {
+            Sheet sheet = workbook.createSheet("RTM");
+            writeXlsxRow(sheet.createRow(0), EXPORT_COLUMNS);
+            int rowNum = 1;
+            for (Iterator<RtmRow> it = rows.iterator(); it.hasNext();) {
+                writeXlsxRow(sheet.createRow(rowNum++), exportValues(it.next()));
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    // One value per EXPORT_COLUMNS entry; nulls stay null so both formats leave the cell empty
+    private static Object[] exportValues(RtmRow row) {
+        return new Object[] {row.id(), row.requirementId(), row.requirement(), row.sourceExcerpt(),
+                row.decisionId(), row.decision(), row.riskId(), row.risk(), row.timelineId(), row.milestone()};
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                writeCsvField(writer, text);
+            } else if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, String text) throws IOException {
+        // Text that a spreadsheet would read as a formula is prefixed so it stays text
+        boolean formula = !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0;
+        boolean quote = formula || text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeXlsxRow(Row row, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Long number) {
+                row.createCell(i).setCellValue(number);
+            } else if (value instanceof String text) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(text.length() > MAX_XLSX_CELL_LENGTH
+                        ? text.substring(0, MAX_XLSX_CELL_LENGTH) : text);
+            } else if (value != null) {
+                row.createCell(i).setCellValue(value.toString());
+            }
+        }
+    }
+
+    private static void writeNumber(JsonGenerator json, String field, Long value) throws IOException {
+        json.writeFieldName(field);
+        if (value != null) {
+            json.writeNumber(value);
+        } else {
+            json.writeNull();
+        }
+    }
+
+    /**
+     * Builds one RTM entry per requirement of a BRD assembled from chunk
+     * extractions. Its lists hold each chunk's items contiguously and in
+     * chunk order, so a chunk-relative link index resolves by position: the
+     * chunk's offset into the list plus the index. This is O(requirements),
+     * never compares entities and needs no ids, so the entries can be saved
+     * in the same persist as the BRD.
+     */
+    public List<RtmEntry> buildEntries(BrdDocument brdDocument, SourceData sourceData,
+            List<ExtractionMapper.ChunkExtraction> chunkExtractions) {
+        List<Requirement> reqs = brdDocument.getRequirements();
+        List<Decision> decs = brdDocument.getDecisions();
+        List<Risk> risks = brdDocument.getRisks();
+        List<Timeline> times = brdDocument.getTimelines();
+
+        List<RtmEntry> rtmEntries = new ArrayList<>(reqs.size());
+        int reqStart = 0;
+        int decStart = 0;
+        int riskStart = 0;
+        int timeStart = 0;
+
+        for (ExtractionMapper.ChunkExtraction extraction : chunkExtractions) {
+            int chunkDecs = extraction.decisions().size();
+            int chunkRisks = extraction.risks().size();
+            int chunkTimes = extraction.timelines().size();
+
+            for (int i = 0; i < extraction.requirements().size(); i++) {
+                Requirement req = reqs.get(reqStart + i);
+
+                RtmEntry rtm = new RtmEntry();
+                rtm.setBrdDocument(brdDocument);
+                rtm.setRequirement(req);
+                rtm.setSourceData(sourceData);
+                // The mapper defaults the quote to the whole chunk when the model gave none
+                rtm.setSourceChunk(req.getSourceQuote());
+
+                // Links outside this chunk's items are ignored, as the model may point past the end
+                int relDecIdx = extraction.decisionLinks()[i];
+                if (relDecIdx >= 0 && relDecIdx < chunkDecs) {
+                    rtm.setDecision(decs.get(decStart + relDecIdx));
+                }
+                int relRiskIdx = extraction.riskLinks()[i];
+                if (relRiskIdx >= 0 && relRiskIdx < chunkRisks) {
+                    rtm.setRisk(risks.get(riskStart + relRiskIdx));
+                }
+                int relTimeIdx = extraction.timelineLinks()[i];
+                if (relTimeIdx >= 0 && relTimeIdx < chunkTimes) {
+                    rtm.setTimeline(times.get(timeStart + relTimeIdx));
+                }
+                rtmEntries.add(rtm);
+            }
+
+            reqStart += extraction.requirements().size();
+            decStart += chunkDecs;
+            riskStart += chunkRisks;
+            timeStart += chunkTimes;
+        }
+        return rtmEntries;
+    }
+
+    /**
+     * Drops the RTM rows of deleted requirements and clears links to
+     * deleted decisions, risks and timelines, in one statement each, so the
+     * items themselves can be removed without breaking foreign keys.
+     */
+    public void unlinkDeleted(Collection<Long> requirementIds, Collection<Long> decisionIds,
+            Collection<Long> riskIds, Collection<Long> timelineIds) {
+        if (!requirementIds.isEmpty()) {
+            rtmEntryRepository.deleteByRequirementIds(requirementIds);
+        }
+        if (!decisionIds.isEmpty()) {
+            rtmEntryRepository.unlinkDecisions(decisionIds);
+        }
+        if (!riskIds.isEmpty()) {
+            rtmEntryRepository.unlinkRisks(riskIds);
+        }
+        if (!timelineIds.isEmpty()) {
+            rtmEntryRepository.unlinkTimelines(timelineIds);
+        }
+    }
+
+    /**
+     * Adds an unlinked RTM row for each requirement added by hand, so the
+     * matrix keeps one row per requirement.
+     */
+    public void addEntriesFor(BrdDocument brd, List<Requirement> requirements) {
+        if (requirements.isEmpty()) {
+            return;
+        }
+        List<RtmEntry> entries = new ArrayList<>(requirements.size());
+        for (Requirement req : requirements) {
+            RtmEntry rtm = new RtmEntry();
+            rtm.setBrdDocument(brd);
+            rtm.setRequirement(req);
+            rtm.setSourceData(brd.getSourceData());
+            rtm.setSourceChunk(req.getSourceQuote());
+            entries.add(rtm);
+        }
+        rtmEntryRepository.saveAll(entries);
     }
 }
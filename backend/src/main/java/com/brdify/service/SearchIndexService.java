@@ -0,0 +1,316 @@
+package com.brdify.service;
+
+import com.brdify.domain.*;
+import com.brdify.dto.BrdListItem;
+import com.brdify.dto.SearchHit;
+import com.brdify.dto.SearchPage;
+import com.brdify.repository.BrdDocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedded Lucene index over BRD titles and the descriptions of
+ * requirements, decisions and risks, plus requirement source quotes. Each
+ * item is its own Lucene document tagged with its BRD, so a BRD is
+ * re-indexed by replacing every document under its id. Writes happen after
+ * the saving transaction commits; searches use a near-real-time reader, so
+ * they see a save as soon as it is indexed. Lucene commits, which fsync,
+ * run on a fixed interval and at shutdown rather than per save, so a crash
+ * can lose the last interval's writes from disk.
+ * <p>
+ * The index lives on local disk and can always be rebuilt from the
+ * database. A rebuild runs in the background at startup when the index is
+ * missing BRDs, after a write fails, or when {@link #requestRebuild()} is
+ * called.
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    // Most results any query can page through; deeper pages are refused
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String BRD_ID = "brdId";
+    private static final String BRD_TITLE = "brdTitle";
+    private static final String TYPE = "type";
+    private static final String ITEM_ID = "itemId";
+    private static final String TEXT = "text";
+    private static final String QUOTE = "quote";
+    // Quotes are often whole chunks; a match there counts for less than one in the item itself
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TEXT, 1.0f, QUOTE, 0.5f);
+
+    private final BrdDocumentRepository brdDocumentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer queryTimer;
+    // Runs periodic commits and rebuilds, so neither ever overlaps the other
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    public SearchIndexService(BrdDocumentRepository brdDocumentRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${brdify.search.index-dir:data/search-index}") String indexDir,
+            @Value("${brdify.search.commit-interval:30s}") Duration commitInterval) {
+        this.brdDocumentRepository = brdDocumentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.queryTimer = meterRegistry.timer("brdify.search.query");
+        try {
+            this.directory = FSDirectory.open(Path.of(indexDir));
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open search index at " + indexDir, e);
+        }
+        maintenance.scheduleWithFixedDelay(this::commitPending, commitInterval.toMillis(),
+                commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replaces the BRD's documents in the index. The documents are built
+     * now, while the BRD's sections can still be read; inside a transaction
+     * they are written only once it commits, so a rolled-back save never
+     * reaches the index.
+     */
+    public void index(BrdDocument brd) {
+        Term key = new Term(BRD_ID, brd.getId().toString());
+        List<Document> documents = documentsFor(brd);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(key, documents);
+                }
+            });
+        } else {
+            write(key, documents);
+        }
+    }
+
+    /**
+     * Ranked matches for {@code queryText}. All words must match; quoted
+     * phrases, {@code |} (or), {@code -} (not) and trailing {@code *}
+     * wildcards are supported.
+     *
+     * @throws IllegalArgumentException if the page lies beyond {@link #MAX_RESULT_WINDOW}
+     */
+    public SearchPage search(String queryText, int page, int size) {
+        int window = (page + 1) * size;
+        if (window > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_RESULT_WINDOW);
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        // Every word must appear, as users narrowing down a system or constraint expect
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+
+        long start = System.nanoTime();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, window);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(size);
+                for (int i = page * size; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    Document doc = storedFields.document(scoreDoc.doc);
+                    hits.add(new SearchHit(Long.valueOf(doc.get(BRD_ID)), doc.get(BRD_TITLE), doc.get(TYPE),
+                            doc.getField(ITEM_ID).numericValue().longValue(), doc.get(TEXT), scoreDoc.score));
+                }
+                return new SearchPage(hits, page, size, top.totalHits.value,
+                        top.totalHits.relation == TotalHits.Relation.EQUAL_TO);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Queues a background rebuild of the whole index from the database,
+     * unless one is already queued. Searches keep working meanwhile.
+     */
+    public void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            maintenance.execute(() -> {
+                // Cleared first, so a write failing mid-rebuild queues another one
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    // Catches an index that is new, or that lost BRDs to a crash between commits
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildIfStale() {
+        long indexedBrds;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                indexedBrds = searcher.count(new TermQuery(new Term(TYPE, "BRD")));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            log.error("Cannot read the search index; rebuilding it", e);
+            indexedBrds = -1;
+        }
+        if (indexedBrds != brdDocumentRepository.count()) {
+            requestRebuild();
+        }
+    }
+
+    // Walks every BRD with the list query's keyset pagination, one short read-only transaction per BRD
+    private void rebuild() {
+        log.info("Rebuilding the search index from the database");
+        long start = System.nanoTime();
+        int indexed = 0;
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        try {
+            List<BrdListItem> batch;
+            do {
+                batch = brdDocumentRepository.findListPage(null, null, afterCreatedAt, afterId, 100);
+                if (maintenance.isShutdown()) {
+                    log.info("Search index rebuild stopped by shutdown after {} BRDs", indexed);
+                    return;
+                }
+                for (BrdListItem item : batch) {
+                    List<Document> documents = readOnlyTransaction.execute(status -> brdDocumentRepository
+                            .findById(item.id()).map(this::documentsFor).orElse(List.of()));
+                    writer.updateDocuments(new Term(BRD_ID, item.id().toString()), documents);
+                    indexed++;
+                }
+                if (!batch.isEmpty()) {
+                    afterCreatedAt = batch.get(batch.size() - 1).createdAt();
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (!batch.isEmpty());
+            writer.commit();
+            searcherManager.maybeRefresh();
+            log.info("Indexed {} BRDs for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Rebuilding the search index failed after {} BRDs", indexed, e);
+        }
+    }
+
+    private void write(Term key, List<Document> documents) {
+        try {
+            writer.updateDocuments(key, documents);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            // The save itself succeeded; the rebuild brings search back in line with the database
+            log.error("Failed to index BRD {} for search; scheduling a rebuild", key.text(), e);
+            requestRebuild();
+        }
+    }
+
+    private void commitPending() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Caught so the schedule keeps running; the changes stay pending for the next attempt
+            log.error("Failed to commit the search index", e);
+        }
+    }
+
+    private List<Document> documentsFor(BrdDocument brd) {
+        List<Document> documents = new ArrayList<>();
+        documents.add(document(brd, "BRD", brd.getId(), brd.getTitle(), null));
+        for (Requirement req : brd.getRequirements()) {
+            documents.add(document(brd, "REQUIREMENT", req.getId(), req.getDescription(), req.getSourceQuote()));
+        }
+        for (Decision dec : brd.getDecisions()) {
+            documents.add(document(brd, "DECISION", dec.getId(), dec.getDescription(), null));
+        }
+        for (Risk risk : brd.getRisks()) {
+            documents.add(document(brd, "RISK", risk.getId(), risk.getDescription(), null));
+        }
+        return documents;
+    }
+
+    private static Document document(BrdDocument brd, String type, Long itemId, String text, String quote) {
+        Document doc = new Document();
+        doc.add(new StringField(BRD_ID, brd.getId().toString(), Field.Store.YES));
+        doc.add(new StoredField(BRD_TITLE, brd.getTitle() != null ? brd.getTitle() : ""));
+        doc.add(new StringField(TYPE, type, Field.Store.YES));
+        doc.add(new StoredField(ITEM_ID, itemId));
+        doc.add(new TextField(TEXT, text != null ? text : "", Field.Store.YES));
+        if (quote != null) {
+            // Searchable but not stored: it can be a whole chunk, and the hit shows the item text
+            doc.add(new TextField(QUOTE, quote, Field.Store.NO));
+        }
+        return doc;
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        // A running rebuild notices the shutdown between batches; interrupting it could close the index files
+        maintenance.shutdown();
+        if (!maintenance.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Search index maintenance still running at shutdown");
+        }
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
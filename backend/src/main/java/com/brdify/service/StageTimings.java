@@ -0,0 +1,52 @@
+package com.brdify.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Wall-clock duration of each stage of one pipeline run. Stages may
+ * overlap; comparing them shows which one is on the critical path. Each
+ * is recorded as a {@code brdify.pipeline.stage} timer and reported to the
+ * {@link ProcessingListener}.
+ */
+class StageTimings {
+
+    private final MeterRegistry meterRegistry;
+    private final ProcessingListener listener;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Duration> durations = new LinkedHashMap<>();
+
+    StageTimings(MeterRegistry meterRegistry, ProcessingListener listener) {
+        this.meterRegistry = meterRegistry;
+        this.listener = listener;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    void record(String stage, long stageStartNanos) {
+        record(stage, stageStartNanos, System.nanoTime());
+    }
+
+    synchronized void record(String stage, long stageStartNanos, long stageEndNanos) {
+        Duration elapsed = Duration.ofNanos(Math.max(0, stageEndNanos - stageStartNanos));
+        durations.put(stage, elapsed);
+        Timer.builder("brdify.pipeline.stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(elapsed);
+        listener.onStageTiming(stage, elapsed);
+    }
+
+    synchronized String summary() {
+        StringJoiner joiner = new StringJoiner(", ");
+        durations.forEach((stage, elapsed) -> joiner.add(stage + " " + elapsed.toMillis() + " ms"));
+        return joiner.toString();
+    }
+}
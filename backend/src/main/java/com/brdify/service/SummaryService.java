@@ -0,0 +1,207 @@
+package com.brdify.service;
+
+import com.brdify.domain.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Builds the executive summary hierarchically instead of from the raw text.
+ * Each chunk's extraction output is rendered as a short digest, digests are
+ * packed into groups that fit the summary model's input budget and each
+ * group is condensed in parallel, round after round, until everything fits
+ * one final prompt. Latency grows with the depth of that tree, not with the
+ * size of the document, and the first round overlaps with extraction.
+ * Condense calls hold no thread while they are queued or in flight; only the
+ * calling job thread waits, once per round.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SummaryService {
+
+    private final GroqService groqService;
+    private final TokenEstimator tokenEstimator;
+
+    // How many condensed summaries should fit in one reduce prompt
+    @Value("${brdify.summary.reduce-fan-in:4}")
+    private int reduceFanIn;
+
+    /**
+     * Reduces extraction results into an executive summary while they are
+     * still arriving: results are taken in chunk order and each leaf group
+     * is sent for condensing as soon as it is full, so only the final rounds
+     * wait for the last chunk. A failed extraction fails the summary and
+     * cancels any condense calls it started.
+     */
+    public String summarize(List<? extends CompletableFuture<ExtractionMapper.ChunkExtraction>> extractions) {
+        int budget = groqService.summaryInputTokenBudget();
+        int targetTokens = Math.min(budget / Math.max(2, reduceFanIn), groqService.summaryOutputTokenLimit());
+
+        List<CompletableFuture<String>> condensing = new ArrayList<>();
+        List<String> pending = new ArrayList<>(); // Leaf digests not yet sent for condensing
+        int pendingTokens = 0;
+        try {
+            for (CompletableFuture<ExtractionMapper.ChunkExtraction> future : extractions) {
+                String digest = truncate(digest(future.join()), budget);
+                if (digest.isEmpty()) {
+                    continue;
+                }
+                int tokens = tokenEstimator.estimate(digest) + 1;
+                if (pendingTokens > 0 && pendingTokens + tokens > budget) {
+                    condensing.add(condenseAsync(String.join("\n", pending), targetTokens));
+                    pending.clear();
+                    pendingTokens = 0;
+                }
+                pending.add(digest);
+                pendingTokens += tokens;
+            }
+        } catch (CompletionException | CancellationException e) {
+            cancelAll(condensing);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Extraction failed: " + cause.getMessage(), cause);
+        }
+
+        List<String> level;
+        if (condensing.isEmpty()) {
+            // Everything fits one prompt; no reduce round needed
+            level = new ArrayList<>(pending);
+            if (level.isEmpty()) {
+                level.add("No requirements, decisions, risks or milestones were extracted from the source.");
+            }
+        } else {
+            if (!pending.isEmpty()) {
+                condensing.add(condenseAsync(String.join("\n", pending), targetTokens));
+            }
+            level = awaitAll(condensing, targetTokens);
+        }
+        return reduce(level, budget, targetTokens, condensing.isEmpty() ? 0 : 1, extractions.size());
+    }
+
+    private String reduce(List<String> level, int budget, int targetTokens, int rounds, int chunkCount) {
+        while (true) {
+            List<String> groups = pack(level, budget);
+            if (groups.size() <= 1) {
+                log.info("Executive summary from {} chunk digests after {} reduce rounds", chunkCount, rounds);
+                return awaitSummary(groqService.generateExecutiveSummary(groups.isEmpty() ? "" : groups.get(0)));
+            }
+            if (groups.size() == level.size()) {
+                // Nothing could be paired up; shrink every item so the next packing merges at least two
+                level = level.stream().map(text -> truncate(text, budget / 2 - 1)).toList();
+                groups = pack(level, budget);
+            }
+            level = awaitAll(groups.stream().map(group -> condenseAsync(group, targetTokens)).toList(), targetTokens);
+            rounds++;
+        }
+    }
+
+    // One line per extracted item, so a digest is far smaller than its chunk
+    String digest(ExtractionMapper.ChunkExtraction extraction) {
+        StringBuilder sb = new StringBuilder();
+        for (Requirement req : extraction.requirements()) {
+            sb.append("Requirement: ").append(req.getDescription()).append('\n');
+        }
+        for (Decision dec : extraction.decisions()) {
+            sb.append("Decision: ").append(dec.getDescription()).append('\n');
+        }
+        for (Risk risk : extraction.risks()) {
+            sb.append("Risk: ").append(risk.getDescription());
+            if (risk.getImpact() != null) {
+                sb.append(" (impact ").append(risk.getImpact()).append(')');
+            }
+            sb.append('\n');
+        }
+        for (Timeline timeline : extraction.timelines()) {
+            sb.append("Milestone: ").append(timeline.getMilestone());
+            if (timeline.getExpectedDate() != null && !timeline.getExpectedDate().isEmpty()) {
+                sb.append(" (").append(timeline.getExpectedDate()).append(')');
+            }
+            sb.append('\n');
+        }
+        for (Stakeholder sh : extraction.stakeholders()) {
+            sb.append("Stakeholder: ").append(sh.getName());
+            if (sh.getRole() != null) {
+                sb.append(" (").append(sh.getRole()).append(')');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Greedy packing in document order; an item larger than the budget is cut to fit on its own
+    private List<String> pack(List<String> items, int budget) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder group = new StringBuilder();
+        int groupTokens = 0;
+        for (String item : items) {
+            String text = truncate(item, budget);
+            int tokens = tokenEstimator.estimate(text) + 1;
+            if (groupTokens > 0 && groupTokens + tokens > budget) {
+                groups.add(group.toString());
+                group.setLength(0);
+                groupTokens = 0;
+            }
+            group.append(text).append('\n');
+            groupTokens += tokens;
+        }
+        if (groupTokens > 0) {
+            groups.add(group.toString());
+        }
+        return groups;
+    }
+
+    // The Groq call itself, so cancelling it stops the call; replies are cut to size once joined
+    private CompletableFuture<String> condenseAsync(String group, int targetTokens) {
+        return groqService.condenseSummary(group, targetTokens);
+    }
+
+    private List<String> awaitAll(List<CompletableFuture<String>> condensing, int targetTokens) {
+        try {
+            return condensing.stream()
+                    .map(CompletableFuture::join)
+                    .map(text -> truncate(text, targetTokens))
+                    .toList();
+        } catch (CompletionException | CancellationException e) {
+            cancelAll(condensing);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Executive summary reduction failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static String awaitSummary(CompletableFuture<String> summary) {
+        try {
+            return summary.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+        futures.forEach(f -> f.cancel(false));
+    }
+
+    private String truncate(String text, int tokenBudget) {
+        if (tokenEstimator.estimate(text) <= tokenBudget) {
+            return text;
+        }
+        // Estimates grow monotonically with the end offset, so binary search the cut point
+        int lo = 0;
+        int hi = text.length();
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (tokenEstimator.estimate(text, 0, mid) <= tokenBudget) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return text.substring(0, lo);
+    }
+}
@@ -0,0 +1,68 @@
+package com.brdify.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Rough token count for prompts sent to Groq, used to size chunks, truncate
+ * summary input and reserve rate-limit budget. It is a character-class
+ * heuristic, not the Llama 3 tokenizer: letter runs cost one token per 4
+ * characters, digits one per 3 (as the BPE pre-tokenizer groups them), runs
+ * of newlines one, other whitespace nothing, and every other character one.
+ * <p>
+ * Its error is measured on live traffic rather than a fixed corpus: Groq
+ * reports the real prompt token count with every reply, and GroqService
+ * records real / estimated per model as {@code brdify.groq.prompt.tokens.ratio}.
+ * A mean below 1 is the overcount described below; a max above 1 is an
+ * undercount the budgets had to absorb. Retune the ratios here from it.
+ * <p>
+ * On English prose it errs high. A common long word is one real token but
+ * counts as several here, and a sample of plain English came out at about
+ * 1.8 tokens per word, against the usual 1.3 or so, an overestimate of
+ * around a third. It can undercount text the real vocabulary splits finely:
+ * non-Latin scripts (a run of CJK characters counts as one token per 4),
+ * long runs of spaces, and random letter strings such as identifiers or
+ * base64. Budgets built on it should keep some headroom for such input.
+ */
+@Component
+public class TokenEstimator {
+
+    private static final int CHARS_PER_WORD_TOKEN = 4;
+    private static final int DIGITS_PER_TOKEN = 3;
+
+    public int estimate(CharSequence text) {
+        return estimate(text, 0, text.length());
+    }
+
+    public int estimate(CharSequence text, int start, int end) {
+        int tokens = 0;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                int runStart = i;
+                while (i < end && Character.isLetter(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - runStart + CHARS_PER_WORD_TOKEN - 1) / CHARS_PER_WORD_TOKEN;
+            } else if (Character.isDigit(c)) {
+                int runStart = i;
+                while (i < end && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - runStart + DIGITS_PER_TOKEN - 1) / DIGITS_PER_TOKEN;
+            } else if (c == '\n') {
+                // Consecutive newlines merge into one token
+                while (i < end && text.charAt(i) == '\n') {
+                    i++;
+                }
+                tokens++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                tokens++;
+                i++;
+            }
+        }
+        return tokens;
+    }
+}
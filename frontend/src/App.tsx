@@ -1,8 +1,9 @@
 import React, { useState, useRef } from 'react';
+import axios from 'axios';
 import { Routes, Route, Link, useNavigate, Navigate } from "react-router-dom";
 import Login from "./pages/Login";
 import Signup from "./pages/Signup";
-import { uploadFile, uploadText, updateBrd, getRtm, BRD, RTMEntry, getPdfUrl, getDocxUrl } from './api/api';
+import { uploadFile, uploadText, patchBrd, getRtm, BRD, RTMEntry, getPdfUrl, getDocxUrl, getRtmCsvUrl, getRtmXlsxUrl } from './api/api';
 import {
     FileText,
     UploadCloud,
@@ -99,10 +100,10 @@ function App() {
     };
 
     const handleSaveBrd = async () => {
-        if (!editDraft) return;
+        if (!editDraft || !brd) return;
         setSaving(true);
         try {
-            const data = await updateBrd(editDraft.id, editDraft);
+            const data = await patchBrd(brd, editDraft);
             setBrd(data);
             setIsEditing(false);
             setEditDraft(null);
@@ -112,7 +113,11 @@ function App() {
 
         } catch (error) {
             console.error('Error saving BRD:', error);
-            alert('Failed to save BRD.');
+            if (axios.isAxiosError(error) && error.response?.status === 409) {
+                alert('This BRD was changed by someone else since you opened it. Reload it and reapply your edits.');
+            } else {
+                alert('Failed to save BRD.');
+            }
         } finally {
             setSaving(false);
         }
@@ -652,6 +657,16 @@ function App() {
             <div className="panel-header">
                 <h2><Network size={24} color="var(--color-accent)" /> Traceability Matrix</h2>
                 <p className="text-muted">Mapping requirements to decisions, risks, and timeline elements.</p>
+                {brd && rtmEntries.length > 0 && (
+                    <div style={{ display: 'flex', gap: '0.5rem', marginTop: '0.75rem' }}>
+                        <a href={getRtmCsvUrl(brd.id)} target="_blank" rel="noreferrer" className="btn btn-primary" style={{ textDecoration: 'none' }}>
+                            <Download size={16} /> CSV
+                        </a>
+                        <a href={getRtmXlsxUrl(brd.id)} target="_blank" rel="noreferrer" className="btn btn-primary" style={{ textDecoration: 'none' }}>
+                            <Download size={16} /> XLSX
+                        </a>
+                    </div>
+                )}
             </div>
 
             {rtmEntries.length === 0 ? (
@@ -670,16 +685,16 @@ function App() {
                         </thead>
                         <tbody>
                             {rtmEntries.map((entry, idx) => (
-                                <tr key={idx}>
-                                    <td className="font-semibold">{entry.requirement?.description || '-'}</td>
+                                <tr key={entry.id ?? idx}>
+                                    <td className="font-semibold">{entry.requirement || '-'}</td>
                                     <td>
                                         <div className="text-sm text-muted" style={{ fontStyle: 'italic', textTransform: 'none' }}>
-                                            "{entry.sourceChunk.length > 100 ? entry.sourceChunk.substring(0, 100) + '...' : entry.sourceChunk}"
+                                            "{(entry.sourceExcerpt ?? '').length > 100 ? (entry.sourceExcerpt ?? '').substring(0, 100) + '...' : entry.sourceExcerpt ?? ''}"
                                         </div>
                                     </td>
-                                    <td>{entry.decision?.description ? <span className="text-sm">{entry.decision.description}</span> : <span className="text-xs text-muted">-</span>}</td>
-                                    <td>{entry.risk?.description ? <span className="text-sm" style={{ color: 'var(--color-danger)' }}>{entry.risk.description}</span> : <span className="text-xs text-muted">-</span>}</td>
-                                    <td>{entry.timeline?.milestone ? <span className="text-sm">{entry.timeline.milestone}</span> : <span className="text-xs text-muted">-</span>}</td>
+                                    <td>{entry.decision ? <span className="text-sm">{entry.decision}</span> : <span className="text-xs text-muted">-</span>}</td>
+                                    <td>{entry.risk ? <span className="text-sm" style={{ color: 'var(--color-danger)' }}>{entry.risk}</span> : <span className="text-xs text-muted">-</span>}</td>
+                                    <td>{entry.milestone ? <span className="text-sm">{entry.milestone}</span> : <span className="text-xs text-muted">-</span>}</td>
                                 </tr>
                             ))}
                         </tbody>
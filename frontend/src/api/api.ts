@@ -7,34 +7,78 @@ export interface BRD {
   title: string;
   summary: string;
   status: string;
-  requirements: { description: string; sourceQuote?: string }[];
-  decisions: { description: string }[];
-  stakeholders: { name: string; role: string }[];
-  risks: { description: string; impact: string; probability?: string; mitigation: string }[];
-  timelines: { milestone: string; expectedDate: string; description: string }[];
+  version?: number; // Optimistic lock; saves made against an older version are rejected with 409
+  requirements: { id?: number; description: string; sourceQuote?: string }[];
+  decisions: { id?: number; description: string }[];
+  stakeholders: { id?: number; name: string; role: string }[];
+  risks: { id?: number; description: string; impact: string; probability?: string; mitigation: string }[];
+  timelines: { id?: number; milestone: string; expectedDate: string; description: string }[];
 }
 
+type BrdItemField = 'requirements' | 'decisions' | 'stakeholders' | 'risks' | 'timelines';
+const BRD_ITEM_FIELDS: BrdItemField[] = ['requirements', 'decisions', 'stakeholders', 'risks', 'timelines'];
+
+interface ItemChanges {
+  upsert: { id?: number }[];
+  delete: number[];
+}
+
+// One flattened traceability row; links are null when the requirement has none
 export interface RTMEntry {
   id: number;
-  sourceChunk: string;
-  requirement?: { id: number; description: string };
-  decision?: { id: number; description: string };
-  risk?: { id: number; description: string };
-  timeline?: { id: number; milestone: string };
+  requirementId: number | null;
+  requirement: string | null;
+  sourceExcerpt: string | null; // First 200 characters of the source passage
+  decisionId: number | null;
+  decision: string | null;
+  riskId: number | null;
+  risk: string | null;
+  timelineId: number | null;
+  milestone: string | null;
+}
+
+export interface BrdJob {
+  id: string;
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+  stage?: string;
+  chunksDone: number;
+  chunksTotal: number;
+  brdId?: number;
+  error?: string;
+  stageMillis?: Record<string, number>; // Wall-clock ms per pipeline stage; stages overlap
 }
 
+const JOB_POLL_INTERVAL_MS = 1500;
+
+export const getJob = async (id: string): Promise<BrdJob> => {
+  const response = await axios.get(`${API_URL}/jobs/${id}`);
+  return response.data;
+};
+
+// Uploads are processed asynchronously; poll the job until the BRD is ready
+const waitForBrd = async (job: BrdJob): Promise<BRD> => {
+  while (job.status !== 'COMPLETED') {
+    if (job.status === 'FAILED') {
+      throw new Error(job.error || 'BRD generation failed');
+    }
+    await new Promise(resolve => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+    job = await getJob(job.id);
+  }
+  return getBrd(job.brdId as number);
+};
+
 export const uploadFile = async (file: File): Promise<BRD> => {
   const formData = new FormData();
   formData.append('file', file);
   const response = await axios.post(`${API_URL}/upload`, formData);
-  return response.data;
+  return waitForBrd(response.data);
 };
 
 export const uploadText = async (text: string): Promise<BRD> => {
   const response = await axios.post(`${API_URL}/upload-text`, text, {
     headers: { 'Content-Type': 'text/plain' } // Backend expects raw string body
   });
-  return response.data;
+  return waitForBrd(response.data);
 };
 
 export const getBrd = async (id: number): Promise<BRD> => {
@@ -52,5 +96,33 @@ export const updateBrd = async (id: number, data: BRD): Promise<BRD> => {
   return response.data;
 };
 
+// Only items that were added, changed or removed go over the wire
+const diffItems = (original: { id?: number }[], draft: { id?: number }[]): ItemChanges => {
+  const before = new Map(original.filter(item => item.id != null).map(item => [item.id, item]));
+  const kept = new Set<number>();
+  const upsert = draft.filter(item => {
+    if (item.id == null || !before.has(item.id)) return true;
+    kept.add(item.id);
+    return JSON.stringify(item) !== JSON.stringify(before.get(item.id));
+  });
+  const removed = [...before.keys()].filter(id => !kept.has(id as number)) as number[];
+  return { upsert, delete: removed };
+};
+
+// Sends the delta between the loaded BRD and the edited draft; rejects with a 409 if someone else saved first
+export const patchBrd = async (original: BRD, draft: BRD): Promise<BRD> => {
+  const patch: Record<string, unknown> = { version: original.version };
+  if (draft.title !== original.title) patch.title = draft.title;
+  if (draft.summary !== original.summary) patch.summary = draft.summary;
+  if (draft.status !== original.status) patch.status = draft.status;
+  for (const field of BRD_ITEM_FIELDS) {
+    patch[field] = diffItems(original[field] || [], draft[field] || []);
+  }
+  const response = await axios.patch(`${API_URL}/brd/${original.id}`, patch);
+  return response.data;
+};
+
 export const getPdfUrl = (id: number) => `${API_URL}/brd/${id}/pdf`;
 export const getDocxUrl = (id: number) => `${API_URL}/brd/${id}/docx`;
+export const getRtmCsvUrl = (id: number) => `${API_URL}/brd/${id}/rtm/csv`;
+export const getRtmXlsxUrl = (id: number) => `${API_URL}/brd/${id}/rtm/xlsx`;